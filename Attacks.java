@@ -0,0 +1,319 @@
+package ChessBoard;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Precomputed attack tables. Knight, king and pawn attacks are a single array
+ * lookup per square, and bishop/rook attacks use magic bitboards: the
+ * occupancy of the squares that can block a slider is multiplied by a magic
+ * number to index a table of all attack sets for that square. "Is square X
+ * attacked by side Y" then takes a handful of table lookups instead of casting
+ * rays square by square.
+ */
+public class Attacks {
+
+    /**
+     * Squares a knight attacks from each square
+     */
+    public static final long[] KNIGHT = new long[64];
+
+    /**
+     * Squares a king attacks from each square
+     */
+    public static final long[] KING = new long[64];
+
+    /**
+     * Squares a pawn attacks from each square, indexed by side then square
+     */
+    public static final long[][] PAWN = new long[2][64];
+
+    /**
+     * Squares whose occupancy can block a rook on each square (edges excluded)
+     */
+    private static final long[] ROOK_MASK = new long[64];
+
+    /**
+     * Squares whose occupancy can block a bishop on each square (edges excluded)
+     */
+    private static final long[] BISHOP_MASK = new long[64];
+
+    /**
+     * Magic multipliers of the rook tables, found once with findMagic(...) so
+     * startup only has to fill the tables
+     */
+    private static final long[] ROOK_MAGIC = {
+            0x008000908064C000L, 0x0040200040001000L, 0x0180100080A0010AL,
+            0x8880041000800800L, 0x1200100201200804L, 0x0200020004011008L,
+            0x2180010000800600L, 0x0200005088210204L, 0x0000800080204001L,
+            0x1000804000802001L, 0x8240801000200080L, 0x8611001004200900L,
+            0x008180800C001800L, 0x0100800200800400L, 0x0A02000102000408L,
+            0x8020802300104280L, 0x0080004000402000L, 0xE010104000402000L,
+            0x0800808010002000L, 0xA280210008100100L, 0x0001818014000800L,
+            0xA002010100080400L, 0x0008040088020130L, 0x0001020004048845L,
+            0x0081826280004004L, 0x2020810900284000L, 0x0200100080802000L,
+            0x0200080080100080L, 0x8083080100100500L, 0x4406000901000400L,
+            0x0005020080800100L, 0x0090204200008114L, 0x0010400094800420L,
+            0x0900804000802002L, 0x0201001841002000L, 0x4100080080801000L,
+            0x4540040080800800L, 0x0000800400800200L, 0x9281800100808200L,
+            0x8004048102000854L, 0x4420802040008006L, 0x0880500020004002L,
+            0x0801200241050010L, 0x8400080010008080L, 0x0008000500090010L,
+            0x0082009084020008L, 0x4012000108020004L, 0x9000104D08860004L,
+            0x2004204114800100L, 0x0148802112400300L, 0x0202842000100880L,
+            0x001B080080900080L, 0x001A002008100600L, 0x0004008004020080L,
+            0x5181000600040300L, 0x0000044401128A00L, 0x8044110480002441L,
+            0x1023012082044112L, 0x00804080200A0012L, 0x000420310A004A42L,
+            0x0023001004020801L, 0x0882001008040102L, 0x000230088118020CL,
+            0x0000019025040042L };
+
+    /**
+     * Magic multipliers of the bishop tables, found once with findMagic(...)
+     */
+    private static final long[] BISHOP_MAGIC = {
+            0x1010220204082A00L, 0x80E0020202002804L, 0x2008480104200020L,
+            0x000220920280002DL, 0x32040421000B0284L, 0x1002080404000400L,
+            0x0004160892080040L, 0x2203024206204201L, 0x0002404264010200L,
+            0x1120908408428124L, 0xB100424403002280L, 0x240008060440C288L,
+            0x2040040420490400L, 0x0100620210040022L, 0x0400084104202028L,
+            0x0010050080908820L, 0x0C90A04490824802L, 0x000200A008210130L,
+            0x0C08001000204010L, 0x0008000186014480L, 0x0601044820080021L,
+            0x0002000101013100L, 0x1400A08108080204L, 0x0250401104485410L,
+            0x4820240810142843L, 0x0009142A20182200L, 0x0848140048440020L,
+            0x2020120000400440L, 0x0108840200802003L, 0x0009070082009492L,
+            0x020C0C0038424245L, 0xCA44005808210410L, 0x8011212000500404L,
+            0x2028840510101008L, 0x0004042A00041400L, 0x0624020080980080L,
+            0x1820410040840040L, 0x2201004202050100L, 0x402A088A24040224L,
+            0x0242061040002400L, 0x90020202400821A0L, 0x00C9009004E01002L,
+            0x58C2060202023100L, 0x0000012214040800L, 0x0210846810100200L,
+            0x0004208081010200L, 0x01A4108404442100L, 0x8054082C80280106L,
+            0x0004144904104208L, 0x00324C0A11104000L, 0x1000020231040100L,
+            0x2080001042020004L, 0x0544021020288104L, 0x1103501408083020L,
+            0x4010451004960002L, 0x003010091C44902CL, 0x0102402884202000L,
+            0x0480804C00841086L, 0x04602C8602210400L, 0x0000004000420200L,
+            0x0040000020442C18L, 0x4483804089094100L, 0x80000B0248020400L,
+            0x0045010808008680L };
+
+    /**
+     * Right shifts of the rook table indexes (64 minus the mask's bit count)
+     */
+    private static final int[] ROOK_SHIFT = new int[64];
+
+    /**
+     * Right shifts of the bishop table indexes (64 minus the mask's bit count)
+     */
+    private static final int[] BISHOP_SHIFT = new int[64];
+
+    /**
+     * Rook attack sets per square, indexed by magic index
+     */
+    private static final long[][] ROOK_TABLE = new long[64][];
+
+    /**
+     * Bishop attack sets per square, indexed by magic index
+     */
+    private static final long[][] BISHOP_TABLE = new long[64][];
+
+    /**
+     * Rank and file steps of the rook rays
+     */
+    private static final int[][] ROOK_DIRECTIONS = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } };
+
+    /**
+     * Rank and file steps of the bishop rays
+     */
+    private static final int[][] BISHOP_DIRECTIONS = { { -1, 1 }, { -1, -1 }, { 1, -1 }, { 1, 1 } };
+
+    /**
+     * State of the random generator used to search magics
+     */
+    private static long seed = 0x2545F4914F6CDD1DL;
+
+    static {
+        int[][] knightSteps = { { -2, 1 }, { -2, -1 }, { 2, 1 }, { 2, -1 }, { -1, 2 }, { -1, -2 }, { 1, 2 },
+                { 1, -2 } };
+        int[][] kingSteps = { { -1, -1 }, { -1, 0 }, { -1, 1 }, { 0, -1 }, { 0, 1 }, { 1, -1 }, { 1, 0 },
+                { 1, 1 } };
+        for (int sq = 0; sq < 64; sq++) {
+            KNIGHT[sq] = steps(sq, knightSteps);
+            KING[sq] = steps(sq, kingSteps);
+            // white moves up the ranks (towards rank index 0), black moves down
+            PAWN[Position.WHITE][sq] = steps(sq, new int[][] { { -1, -1 }, { -1, 1 } });
+            PAWN[Position.BLACK][sq] = steps(sq, new int[][] { { 1, -1 }, { 1, 1 } });
+
+            ROOK_MASK[sq] = relevantMask(sq, ROOK_DIRECTIONS);
+            BISHOP_MASK[sq] = relevantMask(sq, BISHOP_DIRECTIONS);
+            ROOK_SHIFT[sq] = 64 - Long.bitCount(ROOK_MASK[sq]);
+            BISHOP_SHIFT[sq] = 64 - Long.bitCount(BISHOP_MASK[sq]);
+            ROOK_TABLE[sq] = new long[1 << Long.bitCount(ROOK_MASK[sq])];
+            BISHOP_TABLE[sq] = new long[1 << Long.bitCount(BISHOP_MASK[sq])];
+            if (!fillTable(sq, ROOK_MASK[sq], ROOK_MAGIC[sq], ROOK_SHIFT[sq], ROOK_DIRECTIONS, ROOK_TABLE[sq])) {
+                ROOK_MAGIC[sq] = findMagic(sq, ROOK_MASK[sq], ROOK_SHIFT[sq], ROOK_DIRECTIONS, ROOK_TABLE[sq]);
+            }
+            if (!fillTable(sq, BISHOP_MASK[sq], BISHOP_MAGIC[sq], BISHOP_SHIFT[sq], BISHOP_DIRECTIONS,
+                    BISHOP_TABLE[sq])) {
+                BISHOP_MAGIC[sq] = findMagic(sq, BISHOP_MASK[sq], BISHOP_SHIFT[sq], BISHOP_DIRECTIONS,
+                        BISHOP_TABLE[sq]);
+            }
+        }
+    }
+
+    /**
+     * Returns the squares a rook attacks from a square, including the first
+     * blocker on each ray
+     * 
+     * @param sq  Square index of the rook
+     * @param occ Bitboard of occupied squares
+     * @return Bitboard of attacked squares
+     */
+    public static long rook(int sq, long occ) {
+        return ROOK_TABLE[sq][(int) (((occ & ROOK_MASK[sq]) * ROOK_MAGIC[sq]) >>> ROOK_SHIFT[sq])];
+    }
+
+    /**
+     * Returns the squares a bishop attacks from a square, including the first
+     * blocker on each ray
+     * 
+     * @param sq  Square index of the bishop
+     * @param occ Bitboard of occupied squares
+     * @return Bitboard of attacked squares
+     */
+    public static long bishop(int sq, long occ) {
+        return BISHOP_TABLE[sq][(int) (((occ & BISHOP_MASK[sq]) * BISHOP_MAGIC[sq]) >>> BISHOP_SHIFT[sq])];
+    }
+
+    /**
+     * Returns the squares a queen attacks from a square
+     * 
+     * @param sq  Square index of the queen
+     * @param occ Bitboard of occupied squares
+     * @return Bitboard of attacked squares
+     */
+    public static long queen(int sq, long occ) {
+        return rook(sq, occ) | bishop(sq, occ);
+    }
+
+    /**
+     * Returns the squares reached by single steps from a square
+     * 
+     * @param sq    Square index
+     * @param steps Rank and file offsets of each step
+     * @return Bitboard of the squares on the board
+     */
+    private static long steps(int sq, int[][] steps) {
+        long b = 0;
+        for (int[] s : steps) {
+            int r = Position.rankOf(sq) + s[0];
+            int f = Position.fileOf(sq) + s[1];
+            if (r >= 0 && r < 8 && f >= 0 && f < 8) {
+                b |= Position.bit(Position.square(r, f));
+            }
+        }
+        return b;
+    }
+
+    /**
+     * Returns the squares attacked along rays, including the first blocker of
+     * each ray. Only used to fill the tables.
+     * 
+     * @param sq         Square index of the slider
+     * @param occ        Bitboard of occupied squares
+     * @param directions Rank and file steps of the rays
+     * @return Bitboard of attacked squares
+     */
+    private static long slide(int sq, long occ, int[][] directions) {
+        long attacks = 0;
+        for (int[] d : directions) {
+            for (int r = Position.rankOf(sq) + d[0], f = Position.fileOf(sq) + d[1]; r >= 0 && r < 8 && f >= 0
+                    && f < 8; r += d[0], f += d[1]) {
+                long b = Position.bit(Position.square(r, f));
+                attacks |= b;
+                if ((occ & b) != 0)
+                    break;
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * Returns the squares on the rays whose occupancy matters, i.e. every ray
+     * square except the last one on the board
+     * 
+     * @param sq         Square index of the slider
+     * @param directions Rank and file steps of the rays
+     * @return Bitboard of relevant blocker squares
+     */
+    private static long relevantMask(int sq, int[][] directions) {
+        long mask = 0;
+        for (int[] d : directions) {
+            for (int r = Position.rankOf(sq) + d[0], f = Position.fileOf(sq) + d[1]; r + d[0] >= 0
+                    && r + d[0] < 8 && f + d[1] >= 0 && f + d[1] < 8; r += d[0], f += d[1]) {
+                mask |= Position.bit(Position.square(r, f));
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Fills the attack table of a square using a magic multiplier
+     * 
+     * @param sq         Square index of the slider
+     * @param mask       Relevant blocker squares of sq
+     * @param magic      Magic multiplier to index the table with
+     * @param shift      Right shift of the table index
+     * @param directions Rank and file steps of the rays
+     * @param table      Attack table of sq to fill
+     * @return True if every blocker subset got a correct entry, False if two
+     *         subsets with different attacks collided
+     */
+    private static boolean fillTable(int sq, long mask, long magic, int shift, int[][] directions, long[] table) {
+        boolean[] used = new boolean[table.length];
+        // enumerate all subsets of mask (Carry-Rippler)
+        long subset = 0;
+        do {
+            long attacks = slide(sq, subset, directions);
+            int index = (int) ((subset * magic) >>> shift);
+            if (!used[index]) {
+                used[index] = true;
+                table[index] = attacks;
+            } else if (table[index] != attacks) {
+                return false;
+            }
+            subset = (subset - mask) & mask;
+        } while (subset != 0);
+        return true;
+    }
+
+    /**
+     * Searches a magic multiplier that maps every blocker subset of mask to a
+     * table index without destructive collisions, and fills the table
+     * 
+     * @param sq         Square index of the slider
+     * @param mask       Relevant blocker squares of sq
+     * @param shift      Right shift of the table index
+     * @param directions Rank and file steps of the rays
+     * @param table      Attack table of sq to fill
+     * @return Magic multiplier
+     */
+    private static long findMagic(int sq, long mask, int shift, int[][] directions, long[] table) {
+        while (true) {
+            long magic = nextRandom() & nextRandom() & nextRandom();
+            if (Long.bitCount((mask * magic) >>> 56) >= 6 && fillTable(sq, mask, magic, shift, directions, table)) {
+                return magic;
+            }
+        }
+    }
+
+    /**
+     * Returns the next pseudo random number (xorshift64*)
+     * 
+     * @return 64-bit random number
+     */
+    private static long nextRandom() {
+        seed ^= seed >>> 12;
+        seed ^= seed << 25;
+        seed ^= seed >>> 27;
+        return seed * 0x2545F4914F6CDD1DL;
+    }
+}
@@ -1,6 +1,7 @@
 package ChessPieces;
 
 import ChessBoard.ChessBoard;
+import ChessBoard.GameState;
 
 /**
  * @author Michael Mogilevsky (mm3201)
@@ -32,7 +33,7 @@ public class Bishop extends ChessPiece {
      * 4 = northwest
      */
     @Override
-    public boolean canMove(int newR, int newF, ChessPiece[][] chessBoard) {
+    public boolean canMove(int newR, int newF, ChessPiece[][] chessBoard, GameState state) {
         int rp = this.r;
         int fp = this.f;
         int rx = newR - rp;
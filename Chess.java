@@ -4,6 +4,7 @@ import ChessBoard.*;
 import ChessPieces.*;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.io.IOException;
@@ -19,66 +20,65 @@ import java.io.IOException;
 public class Chess {
 
     /**
-     * True if a draw has been proposed
+     * Read-only map that converts a letter (file/column) to board column
      */
-    static boolean proposeDraw = false;
-
-    /**
-     * True if white team is in checkmate
-     */
-    static boolean whiteCheckmated = false;
-
-    /**
-     * True if black team is in checkmate
-     */
-    static boolean blackCheckmated = false;
-
-    /**
-     * HashMap that converts a letter (file/column) to board column
-     */
-    public static Map<String, Integer> letterToFile = new HashMap<String, Integer>();
-
-    /**
-     * No-arg constructor for Chess, initializes letterToFile hashmap for input
-     * conversion
-     */
-    public Chess() {
-        letterToFile.put("a", 0);
-        letterToFile.put("b", 1);
-        letterToFile.put("c", 2);
-        letterToFile.put("d", 3);
-        letterToFile.put("e", 4);
-        letterToFile.put("f", 5);
-        letterToFile.put("g", 6);
-        letterToFile.put("h", 7);
+    public static final Map<String, Integer> letterToFile;
+
+    static {
+        Map<String, Integer> files = new HashMap<String, Integer>();
+        files.put("a", 0);
+        files.put("b", 1);
+        files.put("c", 2);
+        files.put("d", 3);
+        files.put("e", 4);
+        files.put("f", 5);
+        files.put("g", 6);
+        files.put("h", 7);
+        letterToFile = Collections.unmodifiableMap(files);
     }
 
     /**
      * Main loop to run game of chess. Ends when either team is in checkmate or if a
-     * team resigns or draws.
+     * team resigns or draws. The game starts from the standard setup, or from the
+     * position given as a FEN string in the arguments. With the argument "uci"
+     * the UCI front end runs instead.
      * 
-     * @param args Main method arguments
+     * @param args Main method arguments, optionally a FEN string or "uci"
      * @throws IOException Used for user input reading
      */
     public static void main(String[] args) throws IOException {
+        if (args.length == 1 && args[0].equals("uci")) {
+            Uci.main(args);
+            return;
+        }
         BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
 
-        // initialize Chess game to allow conversion of user input
-        Chess c = new Chess();
+        // castling, promotion, draw and checkmate state of this game
+        GameState state = new GameState();
 
         // initialize the chess board
-        ChessPiece[][] chessBoard = ChessBoard.createBoard();
+        ChessPiece[][] chessBoard;
+        int currTurn;
+        if (args.length > 0) {
+            Fen fen = Fen.parse(String.join(" ", args));
+            chessBoard = fen.getBoard();
+            currTurn = fen.getTeamToMove();
+        } else {
+            chessBoard = ChessBoard.createBoard();
+            currTurn = ChessPiece.WHITE; // white starts
+        }
         ChessBoard.printBoard(chessBoard);
 
-        int currTurn = ChessPiece.WHITE; // white starts
+        // track both teams' pieces and kings so they are not searched for every turn
+        PieceLists pieceLists = PieceLists.fromBoard(chessBoard);
 
         // continue until game is over
-        while (!gameOver(currTurn, chessBoard)) {
-            King currKing = findKing(currTurn, chessBoard);
+        while (!gameOver(currTurn, pieceLists, chessBoard, state)) {
+            King currKing = pieceLists.king(currTurn, chessBoard);
 
             // Reset enpassant so enpassant can't be done on next iteration even if pawn
             // moves 2 spaces
-            Pawn.resetAllEnpassants(currTurn, chessBoard);
+            Pawn.resetAllEnpassants(currTurn, pieceLists, chessBoard);
 
             // formatting as per instructions
             System.out.println();
@@ -96,21 +96,21 @@ public class Chess {
             System.out.println();
 
             // always check for draw proposal first
-            if (proposeDraw) {
+            if (state.proposeDraw) {
                 if (in.equals("draw")) {
                     finishGame(true, -1);
                 }
-                proposeDraw = false;
+                state.proposeDraw = false;
             }
 
-            if (validInput(currTurn, in, chessBoard)) {
+            if (validInput(currTurn, in, chessBoard, state)) {
 
                 // translate user input to board lang
-                int[] boardMove = convertInput(in);
-                int startR = boardMove[0];
-                int startF = boardMove[1];
-                int endR = boardMove[2];
-                int endF = boardMove[3];
+                int boardMove = convertInput(in);
+                int startR = Position.rankOf(Move.from(boardMove));
+                int startF = Position.fileOf(Move.from(boardMove));
+                int endR = Position.rankOf(Move.to(boardMove));
+                int endF = Position.fileOf(Move.to(boardMove));
 
                 // if user trying to move a null piece, invalid move
                 if (chessBoard[startR][startF] == null) {
@@ -126,8 +126,9 @@ public class Chess {
 
                 // endSquare = the square the user is trying to move their piece to
                 ChessPiece endSquare = chessBoard[endR][endF];
+                ChessPiece movedPiece = chessBoard[startR][startF];
                 // check if piece can actually move to (endR, endF)
-                if (chessBoard[startR][startF].movePiece(endR, endF, chessBoard)) {
+                if (chessBoard[startR][startF].movePiece(endR, endF, chessBoard, state)) {
                     // if moving piece causes currTurn's King to be in check, ask for another move
                     if (ChessPiece.existsCheck(currKing.getRank(), currKing.getFile(), currKing, chessBoard)) {
                         // undo move
@@ -136,20 +137,24 @@ public class Chess {
                         printIllegalMove();
                         continue;
                     }
+                    // a promotion replaced the pawn with a new piece
+                    if (chessBoard[endR][endF] != movedPiece) {
+                        pieceLists.add(chessBoard[endR][endF], chessBoard);
+                    }
                     // valid move performed, board was updated, print board
                     ChessBoard.printBoard(chessBoard);
 
                     // if is a valid move, then check for a Check to the other King for next round
-                    King oppKing = findKing(oppositeTeam(currTurn), chessBoard);
+                    King oppKing = pieceLists.king(oppositeTeam(currTurn), chessBoard);
                     if (oppKing != null
                             && ChessPiece.existsCheck(oppKing.getRank(), oppKing.getFile(), oppKing, chessBoard)) {
                         // we know other king is checked, check for checkmate
                         {
-                            if (isCheckMate(oppKing, chessBoard)) {
+                            if (isCheckMate(oppKing, chessBoard, state.moveBuffer)) {
                                 if (oppositeTeam(currTurn) == ChessPiece.WHITE) {
-                                    whiteCheckmated = true;
+                                    state.whiteCheckmated = true;
                                 } else {
-                                    blackCheckmated = true;
+                                    state.blackCheckmated = true;
                                 }
                                 break;
                             }
@@ -183,43 +188,18 @@ public class Chess {
      * 
      * @param k          The king that is currently checked
      * @param chessBoard 2D array of ChessPieces that the game is currently using
+     * @param moves      Buffer of at least MAX_MOVES entries, used as scratch space
      * @return True if king is in checkmate, False otherwise
      */
-    public static boolean isCheckMate(King k, ChessPiece[][] chessBoard) {
-        int turnInCheck = k.getTeamColor();
-
-        ChessPiece savior = null;
-        ChessPiece endSquareSavior = null;
-
-        for (int r1 = 0; r1 < ChessBoard.N; r1++) {
-            for (int f1 = 0; f1 < ChessBoard.N; f1++) {
-                if (!ChessBoard.notOccupied(r1, f1, chessBoard) && chessBoard[r1][f1].getTeamColor() == turnInCheck) {
-                    savior = chessBoard[r1][f1];
-
-                    for (int r2 = 0; r2 < ChessBoard.N; r2++) {
-                        for (int f2 = 0; f2 < ChessBoard.N; f2++) {
-
-                            int startR = savior.getRank();
-                            int startF = savior.getFile();
-                            endSquareSavior = chessBoard[r2][f2];
-                            ChessPiece[][] tempBoard = ChessBoard.cloneBoard(chessBoard);
-                            King tK = findKing(turnInCheck, tempBoard);
-                            if (savior.movePiece(r2, f2, tempBoard)) {
-                                if (!ChessPiece.existsCheck(tK.getRank(), tK.getFile(), tK, tempBoard)) {
-                                    // king is no longer checked if savior moves to (r2, f2), so undo move, not a
-                                    // checkmate
-                                    return false;
-                                }
-                                // if not return false, then it is a checkmate, but not a move yet so undo the
-                                // move
-                            }
-                        }
-                    }
-                }
-            }
+    public static boolean isCheckMate(King k, ChessPiece[][] chessBoard, int[] moves) {
+        // the checked team is the one to move next, so any legal move of theirs
+        // is a savior
+        Position pos = Position.fromBoard(chessBoard, k.getTeamColor());
+        if (MoveGenerator.hasLegalMove(pos, moves)) {
+            return false;
         }
 
-        // if did not return from inner loop, then no savior exists... this is a
+        // if no legal move was generated, then no savior exists... this is a
         // CHECKMATE!
         System.out.println();
         System.out.println("Checkmate");
@@ -244,39 +224,19 @@ public class Chess {
         System.exit(0); // terminates program when game ends
     }
 
-    /**
-     * Finds and returns king of current team color
-     * 
-     * @param team       Current turn's team color
-     * @param chessBoard 2D array of ChessPieces representing chess board for the
-     *                   game
-     * @return King piece from current team color from the board
-     */
-    private static King findKing(int team, ChessPiece[][] chessBoard) {
-        King k = null;
-        for (int r = 0; r < ChessBoard.N; r++) {
-            for (int f = 0; f < ChessBoard.N; f++) {
-                if (!ChessBoard.notOccupied(r, f, chessBoard) && (chessBoard[r][f] instanceof King)
-                        && (chessBoard[r][f].getTeamColor() == team)) {
-                    k = (King) chessBoard[r][f];
-                }
-            }
-        }
-        return k;
-    }
-
     /**
      * Check if King of turnColor team is still alive
      * 
      * @param turnColor  color of team with current turn
+     * @param pieceLists Piece lists tracking both teams' kings
      * @param chessBoard 2D array of ChessPieces representing chess board for the
      *                   game
      * @return True if king is found and alive for team turnColor, False otherwise
      */
-    public static boolean checkForKing(int turnColor, ChessPiece[][] chessBoard) {
+    public static boolean checkForKing(int turnColor, PieceLists pieceLists, ChessPiece[][] chessBoard) {
         // return TRUE if a king is found for team turnColor
         // return FALSE if king is NOT FOUND for team turnColor
-        King k = findKing(turnColor, chessBoard);
+        King k = pieceLists.king(turnColor, chessBoard);
 
         // if no king was found, k stays null, meaning other team won
         if (k != null) {
@@ -297,12 +257,15 @@ public class Chess {
      * king is dead)
      * 
      * @param turnColor  color of team with current turn
+     * @param pieceLists Piece lists tracking both teams' kings
      * @param chessBoard 2D array of ChessPieces representing chess board for the
      *                   game
+     * @param state      State of the game
      * @return True if game is over, False otherwise
      */
-    private static boolean gameOver(int turnColor, ChessPiece[][] chessBoard) {
-        return !checkForKing(turnColor, chessBoard) || whiteCheckmated || blackCheckmated;
+    private static boolean gameOver(int turnColor, PieceLists pieceLists, ChessPiece[][] chessBoard,
+            GameState state) {
+        return !checkForKing(turnColor, pieceLists, chessBoard) || state.whiteCheckmated || state.blackCheckmated;
     }
 
     /**
@@ -336,9 +299,10 @@ public class Chess {
      * @param in         User input for move
      * @param chessBoard 2D array of ChessPieces representing chess board for the
      *                   game
+     * @param state      State of the game, records draw proposals and promotions
      * @return True if input was valid, False otherwise
      */
-    public static boolean validInput(int turnColor, String in, ChessPiece[][] chessBoard) {
+    public static boolean validInput(int turnColor, String in, ChessPiece[][] chessBoard, GameState state) {
         // Check for resign
         if (in.equals("resign")) {
             if (turnColor == ChessPiece.WHITE) {
@@ -348,19 +312,21 @@ public class Chess {
             }
             // Check for draw
         } else if (in.contains("draw?")) {
-            proposeDraw = true;
+            state.proposeDraw = true;
             return true;
             // e.g. "e2 e4"
         } else if (in.length() == 5) {
-            int[] boardMove = convertInput(in);
-            ChessPiece piece = chessBoard[boardMove[0]][boardMove[1]];
+            int boardMove = convertInput(in);
+            int from = Move.from(boardMove);
+            int endR = Position.rankOf(Move.to(boardMove));
+            ChessPiece piece = chessBoard[Position.rankOf(from)][Position.fileOf(from)];
             if (piece == null) {
                 return false;
             }
             // promoting pawn without argument
-            if (piece instanceof Pawn && (piece.getTeamColor() == ChessPiece.BLACK && boardMove[2] == 7)
-                    || (piece.getTeamColor() == ChessPiece.WHITE && boardMove[2] == 0)) {
-                Pawn.promotionTo = 'Q';
+            if (piece instanceof Pawn && (piece.getTeamColor() == ChessPiece.BLACK && endR == 7)
+                    || (piece.getTeamColor() == ChessPiece.WHITE && endR == 0)) {
+                state.promotionTo = 'Q';
                 return true;
             }
             // else, just moving a piece like usual
@@ -368,7 +334,7 @@ public class Chess {
                 return true;
             }
         } else if (in.length() == 7) {
-            Pawn.promotionTo = in.charAt(6);
+            state.promotionTo = in.charAt(6);
             return true;
         }
 
@@ -379,24 +345,22 @@ public class Chess {
      * Convert user input move of "FileRank FileRank" to board language
      * 
      * @param in User input for move
-     * @return Integer Array of [beginRank, beginFile, endRank, endFile]
+     * @return Packed move (see Move) with only the start and end square set
      */
-    public static int[] convertInput(String in) {
+    public static int convertInput(String in) {
         // input example:
         // FileRank FileRank
         // e2 e4
         // translates to...
         // (f0, r0) --> (fF, rF)
         // (1, 4) --> (3, 4)
-        // convertedIn = {startRank, startFile, endRank, endFile}
-        int[] convertedIn = new int[4];
-
-        convertedIn[0] = 8 - Integer.parseInt(in.substring(1, 2));
-        convertedIn[1] = letterToFile.get(in.substring(0, 1));
-        convertedIn[2] = 8 - Integer.parseInt(in.substring(4, 5));
-        convertedIn[3] = letterToFile.get(in.substring(3, 4));
+        // packed as start and end square index, no array is allocated
+        int startR = 8 - Integer.parseInt(in.substring(1, 2));
+        int startF = letterToFile.get(in.substring(0, 1));
+        int endR = 8 - Integer.parseInt(in.substring(4, 5));
+        int endF = letterToFile.get(in.substring(3, 4));
 
-        return convertedIn;
+        return Move.squares(Position.square(startR, startF), Position.square(endR, endF));
     }
 
 }
@@ -115,6 +115,16 @@ public abstract class ChessPiece {
         return hasMoved;
     }
 
+    /**
+     * Sets whether the piece has moved previously, for boards that are set up
+     * from a position instead of played from the start
+     * 
+     * @param hasMoved True if piece has moved previously, False otherwise
+     */
+    public void setHasMoved(boolean hasMoved) {
+        this.hasMoved = hasMoved;
+    }
+
     /**
      * Returns whether otherPiece is on the opposite team of current piece
      * 
@@ -215,14 +225,15 @@ public abstract class ChessPiece {
      * @param newR       New rank coordinate of piece
      * @param newF       New file coordinate of piece
      * @param chessBoard The chess board 2D array of ChessPieces the piece is on
+     * @param state      State of the game the piece is in
      * @return True if move to new position was successful, False otherwise
      */
-    public boolean movePiece(int newR, int newF, ChessPiece[][] chessBoard) {
+    public boolean movePiece(int newR, int newF, ChessPiece[][] chessBoard, GameState state) {
         int oldR = this.r;
         int oldF = this.f;
         ChessPiece oldPos = chessBoard[oldR][oldF];
 
-        if (canMove(newR, newF, chessBoard)) {
+        if (canMove(newR, newF, chessBoard, state)) {
             ChessPiece newPos = chessBoard[newR][newF];
             // Check that chessBoard[newX][newY] is not null first
             if (ChessBoard.notOccupied(newR, newF, chessBoard)) {
@@ -265,185 +276,80 @@ public abstract class ChessPiece {
      * @return True if the provided king is checked, False otherwise
      */
     public static boolean existsCheck(int r, int f, ChessPiece k, ChessPiece[][] chessBoard) {
-        // Check upward path for a Rook or Queen (index gets smaller)
-        for (int rp = r - 1; rp >= 0; rp--) {
-            // Check something is actually in the space (else keep looking)
-            if (!ChessBoard.notOccupied(rp, f, chessBoard)) {
-                if (checkOpponent(chessBoard, rp, f, k, 'R', 0, 0)) {
-                    return true;
-                } else
-                    break;
-            }
-        }
-        // Check downward path for a Rook or Queen (index gets larger)
-        for (int rp = r + 1; rp < ChessBoard.N; rp++) {
-            // Check something is actually in the space (else keep looking)
-            if (!ChessBoard.notOccupied(rp, f, chessBoard)) {
-                if (checkOpponent(chessBoard, rp, f, k, 'R', 0, 0)) {
-                    return true;
-                } else
-                    break;
-            }
-        }
-        // Check left path for a Rook or Queen (f gets smaller)
-        for (int fp = f - 1; fp >= 0; fp--) {
-            // Check something is actually in the space (else keep looking)
-            if (!ChessBoard.notOccupied(r, fp, chessBoard)) {
-                if (checkOpponent(chessBoard, r, fp, k, 'R', 0, 0)) {
-                    return true;
-                } else
-                    break;
-            }
-        }
-        // Check right path for a Rook or Queen (f gets larger)
-        for (int fp = f + 1; fp < ChessBoard.N; fp++) {
-            // Check something is actually in the space (else keep looking)
-            if (!ChessBoard.notOccupied(r, fp, chessBoard)) {
-                if (checkOpponent(chessBoard, r, fp, k, 'R', 0, 0)) {
-                    return true;
-                } else
-                    break;
-            }
-        }
-
-        // Check diagonally up and right path for Bishop or Queen (r decreases, f
-        // increases)
-        for (int rp = r - 1, fp = f + 1; rp >= 0 && fp < ChessBoard.N; rp--, fp++) {
-            if (!ChessBoard.notOccupied(rp, fp, chessBoard)) {
-                if (checkOpponent(chessBoard, rp, fp, k, 'B', 0, 0)) {
-                    return true;
-                } else
-                    break;
-            }
-        }
-        // Check diagonally up and left path for Bishop or Queen (r decreases, f
-        // decreases)
-        for (int rp = r - 1, fp = f - 1; rp >= 0 && fp >= 0; rp--, fp--) {
-            if (!ChessBoard.notOccupied(rp, fp, chessBoard)) {
-                if (checkOpponent(chessBoard, rp, fp, k, 'B', 0, 0)) {
-                    return true;
-                } else
-                    break;
-            }
-        }
-        // Check diagonally down and left path for Bishop or Queen (r increases, f
-        // decreases)
-        for (int rp = r + 1, fp = f - 1; rp < ChessBoard.N && fp >= 0; rp++, fp--) {
-            if (!ChessBoard.notOccupied(rp, fp, chessBoard)) {
-                if (checkOpponent(chessBoard, rp, fp, k, 'B', 0, 0)) {
-                    return true;
-                } else
-                    break;
-            }
-        }
-        // Check diagonally down and right path for Bishop or Queen (r increases, f
-        // increases)
-        for (int rp = r + 1, fp = f + 1; rp < ChessBoard.N && fp < ChessBoard.N; rp++, fp++) {
-            if (!ChessBoard.notOccupied(rp, fp, chessBoard)) {
-                if (checkOpponent(chessBoard, rp, fp, k, 'B', 0, 0)) {
-                    return true;
-                } else
-                    break;
-            }
-        }
-
-        // Check for a white pawn that can put King in check
-        if (k.getTeamColor() == BLACK) {
-            // Check southwest and southeast squares for a valid checking pawn
-            if (!ChessBoard.notOccupied(r + 1, f - 1, chessBoard) && chessBoard[r + 1][f - 1].isOpponent(k)
-                    && chessBoard[r + 1][f - 1] instanceof Pawn) {
-                return true;
-            }
-            if (!ChessBoard.notOccupied(r + 1, f + 1, chessBoard) && chessBoard[r + 1][f + 1].isOpponent(k)
-                    && chessBoard[r + 1][f + 1] instanceof Pawn) {
-                return true;
-            }
-        }
-        // Check for a black pawn that can put King in check
-        else {
-            // Check northwest and northeast squares for a valid checking pawn
-            if (!ChessBoard.notOccupied(r - 1, f - 1, chessBoard) && chessBoard[r - 1][f - 1].isOpponent(k)
-                    && chessBoard[r - 1][f - 1] instanceof Pawn) {
-                return true;
-            }
-            if (!ChessBoard.notOccupied(r - 1, f + 1, chessBoard) && chessBoard[r - 1][f + 1].isOpponent(k)
-                    && chessBoard[r - 1][f + 1] instanceof Pawn) {
-                return true;
-            }
-        }
-
-        // Check for a knight that can put King in check
-        // Check all SHORT VERTICAL, LONG HORIZONTAL
-        if (checkOpponent(chessBoard, r, f, k, 'N', 1, 2))
-            return true;
-        if (checkOpponent(chessBoard, r, f, k, 'N', 1, -2))
-            return true;
-        if (checkOpponent(chessBoard, r, f, k, 'N', -1, 2))
-            return true;
-        if (checkOpponent(chessBoard, r, f, k, 'N', -1, -2))
-            return true;
-
-        // Check all LONG VERTICAL, SHORT HORIZONTAL
-        if (checkOpponent(chessBoard, r, f, k, 'N', -2, -1))
-            return true;
-        if (checkOpponent(chessBoard, r, f, k, 'N', 2, -1))
-            return true;
-        if (checkOpponent(chessBoard, r, f, k, 'N', -2, 1))
-            return true;
-        if (checkOpponent(chessBoard, r, f, k, 'N', 2, 1))
-            return true;
-
-        // Check for opponent KING that might put current King in check
-        // Check vertical/horizontals
-        if (checkOpponent(chessBoard, r, f, k, 'K', 0, -1))
-            return true;
-        if (checkOpponent(chessBoard, r, f, k, 'K', 0, 1))
-            return true;
-        if (checkOpponent(chessBoard, r, f, k, 'K', 1, 0))
-            return true;
-        if (checkOpponent(chessBoard, r, f, k, 'K', -1, 0))
-            return true;
-
-        // Check diagonals
-        if (checkOpponent(chessBoard, r, f, k, 'K', 1, 1))
-            return true;
-        if (checkOpponent(chessBoard, r, f, k, 'K', -1, 1))
-            return true;
-        if (checkOpponent(chessBoard, r, f, k, 'K', 1, -1))
-            return true;
-        if (checkOpponent(chessBoard, r, f, k, 'K', -1, -1))
-            return true;
-
-        return false;
+        return existsCheck(1L << Position.square(r, f), k, chessBoard);
     }
 
     /**
-     * Check if provided piece matches provided character p and is an opponent of
-     * the king
+     * Attempt to locate a check for provided king on any of several squares, such
+     * as the squares a castling king passes. The board is read once into an
+     * occupancy mask; the attack tables then give the few squares an attacker of
+     * each examined square could stand on, and only the pieces there are looked
+     * at, so sliders cost one magic lookup instead of a walk along their rays.
      * 
+     * @param squares    Bitboard of the squares to examine (see Position.square)
+     * @param k          The king who is being examined for a check
      * @param chessBoard The chess board 2D array of ChessPieces the piece is on
-     * @param r          The rank coordinate of piece
-     * @param f          The file coordinate of piece
-     * @param k          The king who is being examined for a Check
-     * @param p          Character representing what type of piece the opponent is
-     * @param offR       Rank coordinate offset to the piece being checked
-     * @param offF       File coordinate offset to the piece being checked
-     * @return True if is an opponent in check of King, False otherwise
+     * @return True if the provided king is checked on any square, False otherwise
      */
-    private static boolean checkOpponent(ChessPiece[][] chessBoard, int r, int f, ChessPiece k, char p, int offR,
-            int offF) {
-        if (p == 'R') {
-            return ((chessBoard[r][f].isOpponent(k))
-                    && (chessBoard[r][f] instanceof Rook || chessBoard[r][f] instanceof Queen));
-        } else if (p == 'B') {
-            return ((chessBoard[r][f].isOpponent(k))
-                    && (chessBoard[r][f] instanceof Bishop || chessBoard[r][f] instanceof Queen));
-        } else if (p == 'N') {
-            return !ChessBoard.notOccupied(r + offR, f + offF, chessBoard)
-                    && chessBoard[r + offR][f + offF].isOpponent(k) && chessBoard[r + offR][f + offF] instanceof Knight;
-        } else if (p == 'K') {
-            return !ChessBoard.notOccupied(r + offR, f + offF, chessBoard)
-                    && chessBoard[r + offR][f + offF] instanceof King && chessBoard[r + offR][f + offF].isOpponent(k);
+    public static boolean existsCheck(long squares, ChessPiece k, ChessPiece[][] chessBoard) {
+        // only the lines through the examined squares can hold a blocker, and
+        // knight, king and pawn attackers stand next to them
+        long lines = 0;
+        for (long b = squares; b != 0; b &= b - 1) {
+            int sq = Long.numberOfTrailingZeros(b);
+            lines |= Attacks.queen(sq, 0) | Attacks.KNIGHT[sq];
+        }
+        long occupied = 0;
+        long opponents = 0;
+        for (long b = lines; b != 0; b &= b - 1) {
+            int s = Long.numberOfTrailingZeros(b);
+            ChessPiece p = chessBoard[Position.rankOf(s)][Position.fileOf(s)];
+            if (p != null) {
+                occupied |= 1L << s;
+                if (p.isOpponent(k)) {
+                    opponents |= 1L << s;
+                }
+            }
+        }
+
+        // an opponent pawn attacks sq from where a pawn of the king's side on sq
+        // would attack
+        int side = Position.toSide(k.getTeamColor());
+        for (long b = squares; b != 0; b &= b - 1) {
+            int sq = Long.numberOfTrailingZeros(b);
+            long straight = Attacks.rook(sq, occupied);
+            long diagonal = Attacks.bishop(sq, occupied);
+            long candidates = (straight | diagonal | Attacks.KNIGHT[sq]) & opponents;
+            for (long c = candidates; c != 0; c &= c - 1) {
+                int s = Long.numberOfTrailingZeros(c);
+                long from = 1L << s;
+                switch (Position.typeOf(chessBoard[Position.rankOf(s)][Position.fileOf(s)])) {
+                    case Position.PAWN:
+                        if ((Attacks.PAWN[side][sq] & from) != 0)
+                            return true;
+                        break;
+                    case Position.KNIGHT:
+                        if ((Attacks.KNIGHT[sq] & from) != 0)
+                            return true;
+                        break;
+                    case Position.BISHOP:
+                        if ((diagonal & from) != 0)
+                            return true;
+                        break;
+                    case Position.ROOK:
+                        if ((straight & from) != 0)
+                            return true;
+                        break;
+                    case Position.QUEEN:
+                        if (((straight | diagonal) & from) != 0)
+                            return true;
+                        break;
+                    default:
+                        if ((Attacks.KING[sq] & from) != 0)
+                            return true;
+                        break;
+                }
+            }
         }
         return false;
     }
@@ -455,7 +361,8 @@ public abstract class ChessPiece {
      * @param newR       Desired new rank coordinate for piece
      * @param newF       Desired new file coordinate for piece
      * @param chessBoard The chess board 2D array of ChessPieces the piece is on
+     * @param state      State of the game the piece is in
      * @return True if piece can move to (newR,newF) on board, False otherwise
      */
-    public abstract boolean canMove(int newR, int newF, ChessPiece[][] chessBoard);
+    public abstract boolean canMove(int newR, int newF, ChessPiece[][] chessBoard, GameState state);
 }
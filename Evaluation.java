@@ -0,0 +1,199 @@
+package ChessEngine;
+
+import ChessBoard.*;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Static evaluation of a Position used at the leaves of the search
+ */
+public class Evaluation {
+
+    /**
+     * Rough material value of each piece type in centipawns, indexed by piece
+     * type, used for move ordering and pruning decisions
+     */
+    public static final int[] PIECE_VALUES = { 100, 320, 330, 500, 900, 0 };
+
+    /**
+     * Middlegame penalty for each extra pawn on a file
+     */
+    private static final int DOUBLED_MG = -10;
+
+    /**
+     * Endgame penalty for each extra pawn on a file
+     */
+    private static final int DOUBLED_EG = -20;
+
+    /**
+     * Middlegame penalty for a pawn with no own pawns on the neighbouring files
+     */
+    private static final int ISOLATED_MG = -10;
+
+    /**
+     * Endgame penalty for a pawn with no own pawns on the neighbouring files
+     */
+    private static final int ISOLATED_EG = -15;
+
+    /**
+     * Middlegame penalty for a pawn that has fallen behind its neighbours and
+     * whose next square is guarded by an enemy pawn
+     */
+    private static final int BACKWARD_MG = -8;
+
+    /**
+     * Endgame penalty for a backward pawn
+     */
+    private static final int BACKWARD_EG = -10;
+
+    /**
+     * Middlegame passed pawn bonus by rank counted from the pawn's own side
+     */
+    private static final int[] PASSED_MG = { 0, 5, 10, 20, 35, 60, 100, 0 };
+
+    /**
+     * Endgame passed pawn bonus by rank counted from the pawn's own side
+     */
+    private static final int[] PASSED_EG = { 0, 10, 20, 40, 70, 120, 200, 0 };
+
+    /**
+     * Endgame bonus for a passed pawn whose next square is empty; depends on the
+     * other pieces, so it is added after the cache lookup
+     */
+    private static final int FREE_PASSER_EG = 15;
+
+    /**
+     * Squares of the files next to each file
+     */
+    private static final long[] ADJACENT_FILES = new long[8];
+
+    /**
+     * Squares an enemy pawn must be absent from for a pawn to be passed: in front
+     * of it on its own and the neighbouring files, indexed by side and square
+     */
+    private static final long[][] PASSED_MASK = new long[2][64];
+
+    /**
+     * Squares on the neighbouring files level with or behind a pawn, where own
+     * pawns could support it, indexed by side and square
+     */
+    private static final long[][] SUPPORT_MASK = new long[2][64];
+
+    static {
+        for (int f = 0; f < 8; f++) {
+            ADJACENT_FILES[f] = (f > 0 ? Position.FILE_A << (f - 1) : 0) | (f < 7 ? Position.FILE_A << (f + 1) : 0);
+        }
+        for (int sq = 0; sq < 64; sq++) {
+            int r = Position.rankOf(sq);
+            int f = Position.fileOf(sq);
+            long span = (Position.FILE_A << f) | ADJACENT_FILES[f];
+            for (int r2 = 0; r2 < 8; r2++) {
+                long rank = 0xFFL << (r2 * 8);
+                // white pawns move toward rank index 0, black toward 7
+                if (r2 < r) {
+                    PASSED_MASK[Position.WHITE][sq] |= span & rank;
+                } else {
+                    SUPPORT_MASK[Position.WHITE][sq] |= ADJACENT_FILES[f] & rank;
+                }
+                if (r2 > r) {
+                    PASSED_MASK[Position.BLACK][sq] |= span & rank;
+                } else {
+                    SUPPORT_MASK[Position.BLACK][sq] |= ADJACENT_FILES[f] & rank;
+                }
+            }
+        }
+    }
+
+    /**
+     * Evaluates a position from the point of view of the side to move. The
+     * middlegame and endgame scores kept up to date by Position are blended by
+     * game phase, so material and placement cost the same no matter how many
+     * pieces are left. The pawn structure is looked up in the cache by the pawn
+     * key and only scored on a miss.
+     * 
+     * @param pos   Position to evaluate
+     * @param cache Pawn structure cache of the calling thread
+     * @return Score in centipawns, positive if the side to move is better
+     */
+    public static int evaluate(Position pos, PawnCache cache) {
+        int entry = cache.probe(pos.pawnKey());
+        if (entry < 0) {
+            entry = scorePawns(pos, cache);
+        }
+        int mg = pos.mgScore() + cache.mgScore(entry);
+        int eg = pos.egScore() + cache.egScore(entry) + freePassers(pos, cache.passedPawns(entry));
+
+        // promotions can push the phase above the maximum
+        int phase = Math.min(pos.phase(), PieceSquareTables.MAX_PHASE);
+        int score = (mg * phase + eg * (PieceSquareTables.MAX_PHASE - phase)) / PieceSquareTables.MAX_PHASE;
+        return pos.sideToMove() == Position.WHITE ? score : -score;
+    }
+
+    /**
+     * Scores the doubled, isolated, backward and passed pawns of both sides and
+     * stores the result in the cache
+     * 
+     * @param pos   Position to score
+     * @param cache Cache to store the result in
+     * @return Index of the cache entry holding the result
+     */
+    private static int scorePawns(Position pos, PawnCache cache) {
+        int mg = 0;
+        int eg = 0;
+        long passed = 0;
+        for (int side = Position.WHITE; side <= Position.BLACK; side++) {
+            int sign = side == Position.WHITE ? 1 : -1;
+            long own = pos.pieces(side, Position.PAWN);
+            long enemy = pos.pieces(1 - side, Position.PAWN);
+            int forward = side == Position.WHITE ? -8 : 8;
+            int sideMg = 0;
+            int sideEg = 0;
+            for (int f = 0; f < 8; f++) {
+                int onFile = Long.bitCount(own & (Position.FILE_A << f));
+                if (onFile > 1) {
+                    sideMg += DOUBLED_MG * (onFile - 1);
+                    sideEg += DOUBLED_EG * (onFile - 1);
+                }
+            }
+            for (long b = own; b != 0; b &= b - 1) {
+                int sq = Long.numberOfTrailingZeros(b);
+                int f = Position.fileOf(sq);
+                if ((own & ADJACENT_FILES[f]) == 0) {
+                    sideMg += ISOLATED_MG;
+                    sideEg += ISOLATED_EG;
+                } else if ((own & SUPPORT_MASK[side][sq]) == 0
+                        && (Attacks.PAWN[side][sq + forward] & enemy) != 0) {
+                    sideMg += BACKWARD_MG;
+                    sideEg += BACKWARD_EG;
+                }
+                if ((enemy & PASSED_MASK[side][sq]) == 0) {
+                    int rank = side == Position.WHITE ? 7 - Position.rankOf(sq) : Position.rankOf(sq);
+                    sideMg += PASSED_MG[rank];
+                    sideEg += PASSED_EG[rank];
+                    passed |= Position.bit(sq);
+                }
+            }
+            mg += sign * sideMg;
+            eg += sign * sideEg;
+        }
+        return cache.store(pos.pawnKey(), mg, eg, passed);
+    }
+
+    /**
+     * Scores the passed pawns whose next square is empty
+     * 
+     * @param pos    Position to score
+     * @param passed Passed pawns of both sides
+     * @return Endgame score from White's point of view
+     */
+    private static int freePassers(Position pos, long passed) {
+        long empty = ~pos.occupied();
+        long white = passed & pos.occupancy(Position.WHITE);
+        long black = passed & pos.occupancy(Position.BLACK);
+        int free = Long.bitCount((white >>> 8) & empty) - Long.bitCount((black << 8) & empty);
+        return free * FREE_PASSER_EG;
+    }
+}
@@ -0,0 +1,202 @@
+package ChessBoard;
+
+import ChessPieces.*;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * A chess position in Forsyth-Edwards Notation (FEN), read into a 2D array
+ * chess board without replaying the game that led to it. The per-piece state
+ * the rules depend on is filled in from the FEN fields: pawns off their start
+ * rank and kings and rooks without castling rights have moved, and the pawn
+ * that just double pushed past the en passant square can be enpassanted. The
+ * move counters are kept here, since the 2D array board has no place for them.
+ */
+public class Fen {
+
+    /**
+     * FEN of the position set up by ChessBoard.createBoard()
+     */
+    public static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    /**
+     * Board of the position
+     */
+    private final ChessPiece[][] board;
+
+    /**
+     * Color of team to move (ChessPiece.WHITE or ChessPiece.BLACK)
+     */
+    private final int teamToMove;
+
+    /**
+     * Number of half moves since the last capture or pawn move
+     */
+    private final int halfmoveClock;
+
+    /**
+     * Number of the full move, starting at 1 and incremented after Black moves
+     */
+    private final int fullmoveNumber;
+
+    /**
+     * 4-Arg constructor for Fen
+     * 
+     * @param board          Board of the position
+     * @param teamToMove     Color of team to move
+     * @param halfmoveClock  Half moves since the last capture or pawn move
+     * @param fullmoveNumber Number of the full move
+     */
+    private Fen(ChessPiece[][] board, int teamToMove, int halfmoveClock, int fullmoveNumber) {
+        this.board = board;
+        this.teamToMove = teamToMove;
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+    }
+
+    /**
+     * Reads a FEN string, e.g.
+     * "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1". The move
+     * counters may be omitted.
+     * 
+     * @param fen FEN string of the position
+     * @return The position with its board set up
+     * @throws IllegalArgumentException If fen is not a valid FEN string or
+     *                                  describes a position that cannot be played
+     */
+    public static Fen parse(String fen) {
+        Position pos = Position.fromFen(fen);
+        int castling = pos.castlingRights();
+        ChessPiece[][] board = new ChessPiece[ChessBoard.N][ChessBoard.N];
+        for (int sq = 0; sq < 64; sq++) {
+            int piece = pos.pieceAt(sq);
+            if (piece == Position.EMPTY) {
+                continue;
+            }
+            int r = Position.rankOf(sq);
+            int f = Position.fileOf(sq);
+            int side = Position.sideOf(piece);
+            ChessPiece p = create(Position.pieceType(piece), Position.toTeamColor(side), r, f);
+            // the home rank of the side's pieces, 7 for White and 0 for Black
+            int home = side == Position.WHITE ? 7 : 0;
+            int kingside = side == Position.WHITE ? Position.WHITE_KINGSIDE : Position.BLACK_KINGSIDE;
+            int queenside = side == Position.WHITE ? Position.WHITE_QUEENSIDE : Position.BLACK_QUEENSIDE;
+            if (p instanceof Pawn) {
+                p.setHasMoved(r != (side == Position.WHITE ? 6 : 1));
+            } else if (p instanceof King) {
+                p.setHasMoved(r != home || f != 4 || (castling & (kingside | queenside)) == 0);
+            } else if (p instanceof Rook) {
+                boolean right = (f == 7 && (castling & kingside) != 0) || (f == 0 && (castling & queenside) != 0);
+                p.setHasMoved(r != home || !right);
+            }
+            board[r][f] = p;
+        }
+
+        int ep = pos.enPassantSquare();
+        if (ep >= 0) {
+            // the pawn that double pushed stands one rank past the en passant square
+            int r = Position.rankOf(ep) + (pos.sideToMove() == Position.WHITE ? 1 : -1);
+            ChessPiece p = board[r][Position.fileOf(ep)];
+            if (!(p instanceof Pawn) || p.getTeamColor() == Position.toTeamColor(pos.sideToMove())) {
+                throw new IllegalArgumentException("No pawn can be taken en passant on " + Position.squareName(ep));
+            }
+            p.canBeEnpassanted = true;
+        }
+        return new Fen(board, Position.toTeamColor(pos.sideToMove()), pos.halfmoveClock(), pos.fullmoveNumber());
+    }
+
+    /**
+     * Writes a 2D array chess board as a FEN string. Castling rights come from the
+     * hasMoved flags of the kings and rooks, and the en passant square from a
+     * pawn that can currently be enpassanted, as in Position.fromBoard.
+     * 
+     * @param board          The chess board 2D array of ChessPieces
+     * @param teamToMove     Color of team to move (ChessPiece.WHITE or
+     *                       ChessPiece.BLACK)
+     * @param halfmoveClock  Half moves since the last capture or pawn move
+     * @param fullmoveNumber Number of the full move
+     * @return FEN string with all six fields
+     */
+    public static String toFen(ChessPiece[][] board, int teamToMove, int halfmoveClock, int fullmoveNumber) {
+        Position pos = Position.fromBoard(board, teamToMove);
+        pos.halfmoveClock = halfmoveClock;
+        pos.fullmoveNumber = fullmoveNumber;
+        return pos.toFen();
+    }
+
+    /**
+     * Creates a ChessPiece of a piece type
+     * 
+     * @param type      Piece type index (Position.PAWN ... Position.KING)
+     * @param teamColor Color of team the piece is on
+     * @param r         The rank (row) index of the piece
+     * @param f         The file (column) index of the piece
+     * @return New ChessPiece of the matching class
+     */
+    private static ChessPiece create(int type, int teamColor, int r, int f) {
+        switch (type) {
+            case Position.PAWN:
+                return new Pawn(teamColor, r, f);
+            case Position.KNIGHT:
+                return new Knight(teamColor, r, f);
+            case Position.BISHOP:
+                return new Bishop(teamColor, r, f);
+            case Position.ROOK:
+                return new Rook(teamColor, r, f);
+            case Position.QUEEN:
+                return new Queen(teamColor, r, f);
+            default:
+                return new King(teamColor, r, f);
+        }
+    }
+
+    /**
+     * Returns the board of the position. Every call returns the same board, so a
+     * game played on it changes it.
+     * 
+     * @return 2D array of ChessPieces
+     */
+    public ChessPiece[][] getBoard() {
+        return board;
+    }
+
+    /**
+     * Returns the team to move
+     * 
+     * @return ChessPiece.WHITE or ChessPiece.BLACK
+     */
+    public int getTeamToMove() {
+        return teamToMove;
+    }
+
+    /**
+     * Returns the half move clock
+     * 
+     * @return Half moves since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * Returns the full move number
+     * 
+     * @return Number of the full move, starting at 1
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * Returns the position in FEN
+     * 
+     * @return FEN string of the board in its current state
+     */
+    @Override
+    public String toString() {
+        return toFen(board, teamToMove, halfmoveClock, fullmoveNumber);
+    }
+}
@@ -0,0 +1,345 @@
+package ChessBoard;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Compact binary file of games, read through memory mapping so any game can be
+ * replayed straight from the page cache without reading the rest of the file.
+ * The file starts with a header (magic number, version, offset of the index and
+ * number of games), followed by one record per game and the index of record
+ * offsets. A game record holds the number of plies (2 bytes), the result (1
+ * byte), the length of the start FEN (1 byte, 0 for the standard setup), the
+ * FEN in ASCII and then every move in 16 bits: from square in bits 0-5, to
+ * square in bits 6-11 and promotion piece type in bits 12-15. All numbers are
+ * big-endian. Files are written by GameArchiveWriter. An open archive may be
+ * read by many threads at once.
+ */
+public class GameArchive implements Closeable {
+
+    /**
+     * First four bytes of every archive, "CHGA"
+     */
+    public static final int MAGIC = 0x43484741;
+
+    /**
+     * Version of the file format
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * Size of the header in bytes
+     */
+    public static final int HEADER_SIZE = 24;
+
+    /**
+     * Most plies a game record can hold
+     */
+    public static final int MAX_PLIES = 0xFFFF;
+
+    /**
+     * Longest start FEN a game record can hold
+     */
+    public static final int MAX_FEN_LENGTH = 0xFF;
+
+    /**
+     * Game results by result code
+     */
+    private static final String[] RESULTS = { PgnGame.UNKNOWN_RESULT, "1-0", "0-1", "1/2-1/2" };
+
+    /**
+     * A mapping covers at most 2 GB, so the file is mapped in chunks of this many
+     * bytes (log 2)
+     */
+    private static final int CHUNK_SHIFT = 30;
+
+    /**
+     * Bytes each chunk mapping reaches past its chunk, so a record or index entry
+     * that starts in a chunk can always be read from that chunk's mapping
+     */
+    private static final int CHUNK_OVERLAP = 4 + MAX_FEN_LENGTH + 2 * MAX_PLIES;
+
+    /**
+     * Channel of the archive file
+     */
+    private final FileChannel channel;
+
+    /**
+     * Read-only mappings of the file, one per chunk
+     */
+    private final MappedByteBuffer[] chunks;
+
+    /**
+     * File offset of the index
+     */
+    private final long indexOffset;
+
+    /**
+     * Number of games in the archive
+     */
+    private final int size;
+
+    /**
+     * 1-Arg constructor for GameArchive; use open(path)
+     * 
+     * @param channel Open channel of the archive file
+     * @throws IOException If the file is not a complete game archive
+     */
+    private GameArchive(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long length = channel.size();
+        int count = (int) ((length + (1L << CHUNK_SHIFT) - 1) >>> CHUNK_SHIFT);
+        chunks = new MappedByteBuffer[Math.max(1, count)];
+        for (int i = 0; i < chunks.length; i++) {
+            long start = (long) i << CHUNK_SHIFT;
+            long end = Math.min(length, start + (1L << CHUNK_SHIFT) + CHUNK_OVERLAP);
+            chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        }
+        if (length < HEADER_SIZE || chunks[0].getInt(0) != MAGIC) {
+            throw new IOException("Not a game archive");
+        }
+        if (chunks[0].getInt(4) != VERSION) {
+            throw new IOException("Unsupported game archive version " + chunks[0].getInt(4));
+        }
+        indexOffset = chunks[0].getLong(8);
+        size = chunks[0].getInt(16);
+        if (indexOffset < HEADER_SIZE || size < 0 || indexOffset + 8L * size > length) {
+            throw new IOException("Game archive index is missing or truncated");
+        }
+    }
+
+    /**
+     * Opens and maps an archive file
+     * 
+     * @param path File written by GameArchiveWriter
+     * @return The open archive
+     * @throws IOException If the file cannot be read or is not a complete game
+     *                     archive
+     */
+    public static GameArchive open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new GameArchive(channel);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of games
+     * 
+     * @return Games in the archive
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of plies of a game
+     * 
+     * @param game Game index, from 0
+     * @return Number of moves of the game
+     */
+    public int plies(int game) {
+        long at = record(game);
+        return chunk(at).getShort(local(at)) & 0xFFFF;
+    }
+
+    /**
+     * Returns the result of a game
+     * 
+     * @param game Game index, from 0
+     * @return "1-0", "0-1", "1/2-1/2" or "*"
+     */
+    public String result(int game) {
+        long at = record(game) + 2;
+        return RESULTS[chunk(at).get(local(at)) & 3];
+    }
+
+    /**
+     * Builds the position a game starts from
+     * 
+     * @param game Game index, from 0
+     * @return Start Position of the game
+     */
+    public Position startPosition(int game) {
+        long at = record(game);
+        MappedByteBuffer chunk = chunk(at);
+        int fenLength = chunk.get(local(at) + 3) & 0xFF;
+        if (fenLength == 0) {
+            return Position.startPosition();
+        }
+        byte[] fen = new byte[fenLength];
+        for (int i = 0; i < fenLength; i++) {
+            fen[i] = chunk.get(local(at) + 4 + i);
+        }
+        return Position.fromFen(new String(fen, StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Returns one move of a game as stored
+     * 
+     * @param game Game index, from 0
+     * @param ply  Index of the move in the game, from 0
+     * @return 16-bit move code (see encode)
+     */
+    public int moveCode(int game, int ply) {
+        long at = record(game);
+        MappedByteBuffer chunk = chunk(at);
+        int fenLength = chunk.get(local(at) + 3) & 0xFF;
+        return chunk.getShort(local(at) + 4 + fenLength + 2 * ply) & 0xFFFF;
+    }
+
+    /**
+     * Replays a game from its start position
+     * 
+     * @param game Game index, from 0
+     * @return Packed moves of the game, in the order played
+     */
+    public int[] moves(int game) {
+        Position pos = startPosition(game);
+        int[] moves = new int[plies(game)];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = decode(pos, moveCode(game, i));
+            pos.makeMove(moves[i]);
+        }
+        return moves;
+    }
+
+    /**
+     * Packs a move into 16 bits: from square, to square and promotion piece type
+     * 
+     * @param move Packed move
+     * @return 16-bit move code
+     */
+    public static int encode(int move) {
+        return Move.from(move) | Move.to(move) << 6 | Move.promotion(move) << 12;
+    }
+
+    /**
+     * Rebuilds the full packed move of a 16-bit move code from the position it is
+     * played in. The moving and captured pieces are looked up on the board, and
+     * castling, en passant and double pushes are recognized from the squares.
+     * Archives only hold moves checked when they were written, so the move is
+     * not checked again.
+     * 
+     * @param pos  Position the move is played in
+     * @param code 16-bit move code
+     * @return Packed move
+     */
+    public static int decode(Position pos, int code) {
+        int from = code & 0x3F;
+        int to = (code >>> 6) & 0x3F;
+        int promotion = code >>> 12;
+        int piece = pos.pieceAt(from);
+        int captured = pos.pieceAt(to);
+        int type = Position.pieceType(piece);
+        int flag = 0;
+        if (type == Position.KING && Math.abs(to - from) == 2) {
+            flag = Move.CASTLE;
+        } else if (type == Position.PAWN && Math.abs(to - from) == 16) {
+            flag = Move.DOUBLE_PUSH;
+        } else if (type == Position.PAWN && to == pos.enPassantSquare() && captured == Position.EMPTY) {
+            flag = Move.EN_PASSANT;
+            captured = Position.pieceCode(1 - Position.sideOf(piece), Position.PAWN);
+        }
+        return Move.of(from, to, piece, captured, promotion, flag);
+    }
+
+    /**
+     * Returns the result code of a game result
+     * 
+     * @param result "1-0", "0-1", "1/2-1/2" or "*"
+     * @return Result code stored in game records; 0 for anything unknown
+     */
+    static int resultCode(String result) {
+        for (int i = 0; i < RESULTS.length; i++) {
+            if (RESULTS[i].equals(result)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Closes the file. The mappings stay valid until they are garbage collected,
+     * since Java cannot unmap a buffer explicitly.
+     * 
+     * @throws IOException If closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Returns the file offset of a game record from the index
+     * 
+     * @param game Game index, from 0
+     * @return File offset of the record
+     * @throws IndexOutOfBoundsException If there is no such game
+     */
+    private long record(int game) {
+        if (game < 0 || game >= size) {
+            throw new IndexOutOfBoundsException("No game " + game + " in an archive of " + size);
+        }
+        long at = indexOffset + 8L * game;
+        return chunk(at).getLong(local(at));
+    }
+
+    /**
+     * Returns the mapping that covers a file offset and what follows it
+     * 
+     * @param at File offset
+     * @return Mapping of the chunk the offset is in
+     */
+    private MappedByteBuffer chunk(long at) {
+        return chunks[(int) (at >>> CHUNK_SHIFT)];
+    }
+
+    /**
+     * Returns the position of a file offset within its chunk's mapping
+     * 
+     * @param at File offset
+     * @return Index into chunk(at)
+     */
+    private static int local(long at) {
+        return (int) (at & ((1L << CHUNK_SHIFT) - 1));
+    }
+
+    /**
+     * Replays every game of an archive and prints the replay speed.
+     * Usage: GameArchive games.bin
+     * 
+     * @param args Main method arguments
+     * @throws IOException If the archive cannot be opened
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: GameArchive games.bin");
+            return;
+        }
+        try (GameArchive archive = GameArchive.open(Paths.get(args[0]))) {
+            long start = System.nanoTime();
+            long plies = 0;
+            for (int game = 0; game < archive.size(); game++) {
+                plies += archive.moves(game).length;
+            }
+            long ms = Math.max(1, (System.nanoTime() - start) / 1000000);
+            System.out.println("games " + archive.size() + " plies " + plies + " time " + ms + " ms ("
+                    + plies * 1000 / ms + " plies/s)");
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package ChessBoard;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Writes a GameArchive file one game at a time. Game records are streamed to
+ * the file as they are added; only the offset index (8 bytes per game) is kept
+ * in memory, and it is written after the last game when the writer is closed,
+ * together with the game count in the header. A file whose writer was not
+ * closed has no index and cannot be opened.
+ */
+public class GameArchiveWriter implements Closeable {
+
+    /**
+     * Size of the write buffer in bytes
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Channel of the archive file
+     */
+    private final FileChannel channel;
+
+    /**
+     * Bytes not written to the channel yet
+     */
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    /**
+     * File offset of the first byte in the write buffer
+     */
+    private long flushed = GameArchive.HEADER_SIZE;
+
+    /**
+     * File offset of each game record written so far
+     */
+    private long[] index = new long[1024];
+
+    /**
+     * Number of games written so far
+     */
+    private int games;
+
+    /**
+     * Encoded moves of the game being added
+     */
+    private final short[] codes = new short[GameArchive.MAX_PLIES];
+
+    /**
+     * Scratch buffer for the legal moves of a replayed position
+     */
+    private final int[] moveBuffer = new int[MoveGenerator.MAX_MOVES];
+
+    /**
+     * 1-Arg constructor for GameArchiveWriter; an existing file is replaced
+     * 
+     * @param path File to write
+     * @throws IOException If the file cannot be created
+     */
+    public GameArchiveWriter(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        // the header is written again with the real count and index on close
+        writeHeader(0, 0);
+    }
+
+    /**
+     * Adds a game given by its start position and moves
+     * 
+     * @param fen    FEN of the start position, or null for the standard setup
+     * @param moves  Packed moves in the order played
+     * @param count  Number of moves
+     * @param result "1-0", "0-1", "1/2-1/2" or "*"
+     * @throws IOException If the game cannot be written
+     */
+    public void add(String fen, int[] moves, int count, String result) throws IOException {
+        if (count > GameArchive.MAX_PLIES) {
+            throw new IllegalArgumentException("Game too long for the archive: " + count + " plies");
+        }
+        for (int i = 0; i < count; i++) {
+            codes[i] = (short) GameArchive.encode(moves[i]);
+        }
+        addEncoded(fen, count, result);
+    }
+
+    /**
+     * Adds a PGN game after checking every move against the rules
+     * 
+     * @param game Game read by PgnReader
+     * @return True if the game was added, False if it has an illegal move, a bad
+     *         FEN tag or too many moves
+     * @throws IOException If the game cannot be written
+     */
+    public boolean add(PgnGame game) throws IOException {
+        List<String> moves = game.getMoves();
+        String fen = game.getTag("FEN");
+        if (moves.size() > GameArchive.MAX_PLIES || (fen != null && fen.length() > GameArchive.MAX_FEN_LENGTH)) {
+            return false;
+        }
+        try {
+            Position pos = game.startPosition();
+            for (int i = 0; i < moves.size(); i++) {
+                int move = San.parse(pos, moves.get(i), moveBuffer);
+                if (move == Move.NONE) {
+                    return false;
+                }
+                codes[i] = (short) GameArchive.encode(move);
+                pos.makeMove(move);
+            }
+        } catch (RuntimeException e) {
+            // a bad FEN tag, or any other game that cannot be replayed, is skipped
+            return false;
+        }
+        addEncoded(fen, moves.size(), game.getResult());
+        return true;
+    }
+
+    /**
+     * Writes one game record: ply count, result, FEN and the moves in codes
+     * 
+     * @param fen    FEN of the start position, or null for the standard setup
+     * @param plies  Number of moves in codes
+     * @param result Game result
+     * @throws IOException If the record cannot be written
+     */
+    private void addEncoded(String fen, int plies, String result) throws IOException {
+        if (games == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Archive is full");
+        }
+        byte[] fenBytes = fen == null ? new byte[0] : fen.getBytes(StandardCharsets.US_ASCII);
+        if (fenBytes.length > GameArchive.MAX_FEN_LENGTH) {
+            throw new IllegalArgumentException("FEN too long for the archive: " + fen);
+        }
+        if (games == index.length) {
+            index = Arrays.copyOf(index, games * 2);
+        }
+        index[games++] = flushed + buffer.position();
+
+        reserve(4 + fenBytes.length);
+        buffer.putShort((short) plies);
+        buffer.put((byte) GameArchive.resultCode(result));
+        buffer.put((byte) fenBytes.length);
+        buffer.put(fenBytes);
+        for (int i = 0; i < plies; i++) {
+            reserve(2);
+            buffer.putShort(codes[i]);
+        }
+    }
+
+    /**
+     * Returns the number of games added so far
+     * 
+     * @return Games written
+     */
+    public int getGames() {
+        return games;
+    }
+
+    /**
+     * Writes the index and the final header and closes the file
+     * 
+     * @throws IOException If writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            long indexOffset = flushed + buffer.position();
+            for (int i = 0; i < games; i++) {
+                reserve(8);
+                buffer.putLong(index[i]);
+            }
+            flush();
+            writeHeader(indexOffset, games);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes the header at the start of the file
+     * 
+     * @param indexOffset File offset of the index
+     * @param count       Number of games
+     * @throws IOException If writing fails
+     */
+    private void writeHeader(long indexOffset, int count) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(GameArchive.HEADER_SIZE);
+        header.putInt(GameArchive.MAGIC);
+        header.putInt(GameArchive.VERSION);
+        header.putLong(indexOffset);
+        header.putInt(count);
+        header.putInt(0);
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+
+    /**
+     * Makes room for some bytes in the write buffer, writing it out if needed
+     * 
+     * @param bytes Number of bytes about to be put
+     * @throws IOException If writing fails
+     */
+    private void reserve(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the buffered bytes at the end of the file written so far
+     * 
+     * @throws IOException If writing fails
+     */
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            flushed += channel.write(buffer, flushed);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Converts a PGN file to a game archive, skipping games that fail
+     * validation. Usage: GameArchiveWriter games.pgn games.bin
+     * 
+     * @param args Main method arguments
+     * @throws IOException If a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: GameArchiveWriter games.pgn games.bin");
+            return;
+        }
+        long skipped = 0;
+        long start = System.nanoTime();
+        try (Reader in = new InputStreamReader(Files.newInputStream(Paths.get(args[0])), StandardCharsets.UTF_8);
+                GameArchiveWriter out = new GameArchiveWriter(Paths.get(args[1]))) {
+            PgnReader reader = new PgnReader(in);
+            PgnGame game;
+            while ((game = reader.next()) != null) {
+                if (!out.add(game)) {
+                    skipped++;
+                }
+            }
+            System.out.print("games " + out.getGames() + " skipped " + skipped);
+        }
+        long ms = (System.nanoTime() - start) / 1000000;
+        System.out.println(" bytes " + Files.size(Paths.get(args[1])) + " time " + ms + " ms");
+    }
+}
@@ -0,0 +1,77 @@
+package ChessController;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Outcome of validating one PGN game: how many of its moves were legal and, if
+ * the game is invalid, why
+ */
+public class GameReport {
+
+    /**
+     * Description of the game, e.g. "game 12 (Carlsen - Nakamura)"
+     */
+    private final String game;
+
+    /**
+     * Number of moves played before the first error, or all of them
+     */
+    private final int plies;
+
+    /**
+     * What is wrong with the game, or null if it is valid
+     */
+    private final String error;
+
+    /**
+     * 3-Arg constructor for GameReport
+     * 
+     * @param game  Description of the game
+     * @param plies Number of legal moves played
+     * @param error What is wrong with the game, or null if it is valid
+     */
+    public GameReport(String game, int plies, String error) {
+        this.game = game;
+        this.plies = plies;
+        this.error = error;
+    }
+
+    /**
+     * Returns the description of the game
+     * 
+     * @return Game number and players
+     */
+    public String getGame() {
+        return game;
+    }
+
+    /**
+     * Returns the number of legal moves played
+     * 
+     * @return Half moves played before the first error, or all of them
+     */
+    public int getPlies() {
+        return plies;
+    }
+
+    /**
+     * Returns what is wrong with the game
+     * 
+     * @return Error message, or null if the game is valid
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Check if every move of the game was legal
+     * 
+     * @return True if the game is valid, False otherwise
+     */
+    public boolean isValid() {
+        return error == null;
+    }
+}
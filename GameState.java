@@ -0,0 +1,67 @@
+package ChessBoard;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Per-game mutable state that is not stored on the pieces themselves: castling
+ * in progress, the pending pawn promotion, draw proposals, checkmates and the
+ * move buffer of the checkmate test. Each game (or analysis thread) owns its
+ * own GameState and passes it through canMove(...)/movePiece(...), so many
+ * games can run in one process.
+ */
+public class GameState {
+
+    /**
+     * '*' represents pawn is not being promoted
+     */
+    public static final char NO_PROMOTION = '*';
+
+    /**
+     * True if white king is castling on King side
+     */
+    public boolean whiteCastlingKingside;
+
+    /**
+     * True if white king is castling on Queen side
+     */
+    public boolean whiteCastlingQueenside;
+
+    /**
+     * True if black king is castling on King side
+     */
+    public boolean blackCastlingKingside;
+
+    /**
+     * True if black king is castling on Queen side
+     */
+    public boolean blackCastlingQueenside;
+
+    /**
+     * Character that represents what piece next pawn is being promoted to ('*' for
+     * no promotion)
+     */
+    public char promotionTo = NO_PROMOTION;
+
+    /**
+     * True if a draw has been proposed
+     */
+    public boolean proposeDraw = false;
+
+    /**
+     * True if white team is in checkmate
+     */
+    public boolean whiteCheckmated = false;
+
+    /**
+     * True if black team is in checkmate
+     */
+    public boolean blackCheckmated = false;
+
+    /**
+     * Move buffer reused by every checkmate test of this game
+     */
+    public final int[] moveBuffer = new int[MoveGenerator.MAX_MOVES];
+}
@@ -12,26 +12,6 @@ import ChessBoard.*;
  */
 public class King extends ChessPiece {
 
-    /**
-     * True if white king is castling on King side
-     */
-    public static boolean whiteCastlingKingside;
-
-    /**
-     * True if white king is castling on Queen side
-     */
-    public static boolean whiteCastlingQueenside;
-
-    /**
-     * True if black king is castling on King side
-     */
-    public static boolean blackCastlingKingside;
-
-    /**
-     * True if black king is castling on Queen side
-     */
-    public static boolean blackCastlingQueenside;
-
     /**
      * 3-Arg constructor for King
      * 
@@ -45,7 +25,7 @@ public class King extends ChessPiece {
     }
 
     @Override
-    public boolean canMove(int newR, int newF, ChessPiece[][] chessBoard) {
+    public boolean canMove(int newR, int newF, ChessPiece[][] chessBoard, GameState state) {
         int currR = this.r;
         int currF = this.f;
 
@@ -60,10 +40,10 @@ public class King extends ChessPiece {
 
         ChessPiece k = chessBoard[currR][currF];
 
-        if (checkCastlingKingside(k, currR, currF, newR, newF, chessBoard))
+        if (checkCastlingKingside(k, currR, currF, newR, newF, chessBoard, state))
 
             return true;
-        if (checkCastlingQueenside(k, currR, currF, newR, newF, chessBoard))
+        if (checkCastlingQueenside(k, currR, currF, newR, newF, chessBoard, state))
             return true;
 
         return false;
@@ -71,38 +51,39 @@ public class King extends ChessPiece {
     }
 
     @Override
-    public boolean movePiece(int newR, int newF, ChessPiece[][] chessBoard) {
-        if (canMove(newR, newF, chessBoard)) {
+    public boolean movePiece(int newR, int newF, ChessPiece[][] chessBoard, GameState state) {
+        if (canMove(newR, newF, chessBoard, state)) {
             // check if king can move
             if (ChessBoard.notOccupied(newR, newF, chessBoard)) {
                 // move king to new location (newR, newF) and castle if possible
                 chessBoard[this.r][this.f].setBoardWithMove(newR, newF, chessBoard);
 
-                if (whiteCastlingKingside) {
+                if (state.whiteCastlingKingside) {
                     if (chessBoard[newR][newF].getTeamColor() == WHITE) {
                         chessBoard[7][7].setBoardWithMove(7, 5, chessBoard);
                     }
-                    whiteCastlingKingside = false;
+                    state.whiteCastlingKingside = false;
                 }
 
-                if (whiteCastlingQueenside) {
+                if (state.whiteCastlingQueenside) {
                     if (chessBoard[newR][newF].getTeamColor() == WHITE) {
                         chessBoard[7][0].setBoardWithMove(7, 3, chessBoard);
                     }
-                    whiteCastlingQueenside = false;
+                    state.whiteCastlingQueenside = false;
                 }
 
-                if (blackCastlingKingside) {
+                if (state.blackCastlingKingside) {
                     if (chessBoard[newR][newF].getTeamColor() == BLACK) {
                         chessBoard[0][7].setBoardWithMove(0, 5, chessBoard);
                     }
-                    blackCastlingKingside = false;
+                    state.blackCastlingKingside = false;
                 }
 
-                if (blackCastlingQueenside) {
+                if (state.blackCastlingQueenside) {
                     if (chessBoard[newR][newF].getTeamColor() == BLACK) {
                         chessBoard[0][0].setBoardWithMove(0, 3, chessBoard);
                     }
+                    state.blackCastlingQueenside = false;
                 }
 
                 return true;
@@ -129,10 +110,11 @@ public class King extends ChessPiece {
      * @param newR       New rank (row) coordinate of King
      * @param newF       New file (column) coordinate of King
      * @param chessBoard The chess board 2D array of ChessPieces the piece is on
+     * @param state      State of the game, records that the King is castling
      * @return True if King can castle King side, False otherwise
      */
     private boolean checkCastlingKingside(ChessPiece k, int currR, int currF, int newR, int newF,
-            ChessPiece[][] chessBoard) {
+            ChessPiece[][] chessBoard, GameState state) {
         int r;
         if (k.getTeamColor() == WHITE) {
             r = 7;
@@ -142,13 +124,12 @@ public class King extends ChessPiece {
         if (currR == r && currF == 4 && newR == r && newF == 6 && !k.hasMoved && !chessBoard[newR][7].hasMoved) {
             if (ChessBoard.notOccupied(currR, currF + 1, chessBoard)
                     && ChessBoard.notOccupied(currR, currF + 2, chessBoard)
-                    && !ChessPiece.existsCheck(currR, currF, k, chessBoard)
-                    && !ChessPiece.existsCheck(currR, currF + 1, k, chessBoard)
-                    && !ChessPiece.existsCheck(currR, currF + 2, k, chessBoard)) {
+                    // the king's square and the two squares it passes, e1-g1 or e8-g8
+                    && !ChessPiece.existsCheck(7L << Position.square(currR, currF), k, chessBoard)) {
                 if (chessBoard[currR][currF].getTeamColor() == WHITE) {
-                    whiteCastlingKingside = true;
+                    state.whiteCastlingKingside = true;
                 } else {
-                    blackCastlingKingside = true;
+                    state.blackCastlingKingside = true;
                 }
                 return true;
             }
@@ -165,10 +146,11 @@ public class King extends ChessPiece {
      * @param newR       New rank (row) coordinate of King
      * @param newF       New file (column) coordinate of King
      * @param chessBoard The chess board 2D array of ChessPieces the piece is on
+     * @param state      State of the game, records that the King is castling
      * @return True if King can castle Queen side, False otherwise
      */
     private boolean checkCastlingQueenside(ChessPiece k, int currR, int currF, int newR, int newF,
-            ChessPiece[][] chessBoard) {
+            ChessPiece[][] chessBoard, GameState state) {
         int r;
         if (k.getTeamColor() == WHITE) {
             r = 7;
@@ -179,14 +161,12 @@ public class King extends ChessPiece {
             if (ChessBoard.notOccupied(currR, currF - 1, chessBoard)
                     && ChessBoard.notOccupied(currR, currF - 2, chessBoard)
                     && ChessBoard.notOccupied(currR, currF - 3, chessBoard)
-                    && !ChessPiece.existsCheck(currR, currF, k, chessBoard)
-                    && !ChessPiece.existsCheck(currR, currF - 1, k, chessBoard)
-                    && !ChessPiece.existsCheck(currR, currF - 2, k, chessBoard)
-                    && !ChessPiece.existsCheck(currR, currF - 3, k, chessBoard)) {
+                    // the king's square and the three squares to its rook, b1-e1 or b8-e8
+                    && !ChessPiece.existsCheck(15L << Position.square(currR, currF - 3), k, chessBoard)) {
                 if (chessBoard[currR][currF].getTeamColor() == WHITE) {
-                    whiteCastlingQueenside = true;
+                    state.whiteCastlingQueenside = true;
                 } else {
-                    blackCastlingQueenside = true;
+                    state.blackCastlingQueenside = true;
                 }
                 return true;
             }
@@ -1,5 +1,7 @@
 package ChessPieces;
 
+import ChessBoard.GameState;
+
 /**
  * @author Michael Mogilevsky (mm3201)
  * @author Simran Sareen (ss3825)
@@ -22,7 +24,7 @@ public class Knight extends ChessPiece {
     }
 
     @Override
-    public boolean canMove(int newR, int newF, ChessPiece[][] chessBoard) {
+    public boolean canMove(int newR, int newF, ChessPiece[][] chessBoard, GameState state) {
         // can only move in L-shape, vertical or horizontal (one leg is longer). Also,
         // the Knight can jump over pieces
         return ((Math.abs(this.r - newR) == 1) && (Math.abs(this.f - newF) == 2))
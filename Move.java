@@ -0,0 +1,160 @@
+package ChessBoard;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Static helpers for moves packed into a single int, so move lists are plain
+ * int[] buffers and generating, storing or comparing a move allocates nothing.
+ * 
+ * Layout (low bit first):
+ * bits 0-5   start square
+ * bits 6-11  end square
+ * bits 12-15 piece code of the moving piece (Position.pieceCode)
+ * bits 16-19 piece code of the captured piece plus one (0 for no capture)
+ * bits 20-22 promotion piece type (0 for no promotion)
+ * bits 23-24 special move flag (CASTLE, EN_PASSANT, DOUBLE_PUSH)
+ */
+public final class Move {
+
+    /**
+     * No move; never equal to a generated move because the start and end square
+     * of a real move differ
+     */
+    public static final int NONE = 0;
+
+    /**
+     * Special move flag for a castling king move
+     */
+    public static final int CASTLE = 1;
+
+    /**
+     * Special move flag for a pawn capturing en passant
+     */
+    public static final int EN_PASSANT = 2;
+
+    /**
+     * Special move flag for a pawn moving two squares on its first move
+     */
+    public static final int DOUBLE_PUSH = 3;
+
+    /**
+     * Moves are only handled through the static helpers
+     */
+    private Move() {
+    }
+
+    /**
+     * Packs a move into an int
+     * 
+     * @param from      Start square index
+     * @param to        End square index
+     * @param piece     Piece code of the moving piece
+     * @param captured  Piece code of the captured piece, or Position.EMPTY
+     * @param promotion Piece type to promote to, or 0 if not a promotion
+     * @param flag      Special move flag, or 0 for a normal move
+     * @return Packed move
+     */
+    public static int of(int from, int to, int piece, int captured, int promotion, int flag) {
+        return from | (to << 6) | (piece << 12) | ((captured + 1) << 16) | (promotion << 20) | (flag << 23);
+    }
+
+    /**
+     * Packs a move known only by its squares, e.g. typed by a user, whose piece
+     * fields are not filled in
+     * 
+     * @param from Start square index
+     * @param to   End square index
+     * @return Packed move with only the start and end square set
+     */
+    public static int squares(int from, int to) {
+        return from | (to << 6);
+    }
+
+    /**
+     * Returns the start square of a packed move
+     * 
+     * @param move Packed move
+     * @return Start square index
+     */
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    /**
+     * Returns the end square of a packed move
+     * 
+     * @param move Packed move
+     * @return End square index
+     */
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    /**
+     * Returns the moving piece of a packed move
+     * 
+     * @param move Packed move
+     * @return Piece code of the moving piece
+     */
+    public static int piece(int move) {
+        return (move >>> 12) & 0xF;
+    }
+
+    /**
+     * Returns the captured piece of a packed move; for en passant this is the
+     * pawn behind the end square
+     * 
+     * @param move Packed move
+     * @return Piece code of the captured piece, or Position.EMPTY
+     */
+    public static int captured(int move) {
+        return ((move >>> 16) & 0xF) - 1;
+    }
+
+    /**
+     * Returns the promotion piece type of a packed move
+     * 
+     * @param move Packed move
+     * @return Piece type to promote to, or 0 if not a promotion
+     */
+    public static int promotion(int move) {
+        return (move >>> 20) & 0x7;
+    }
+
+    /**
+     * Returns the special move flag of a packed move
+     * 
+     * @param move Packed move
+     * @return CASTLE, EN_PASSANT, DOUBLE_PUSH or 0
+     */
+    public static int flag(int move) {
+        return (move >>> 23) & 0x3;
+    }
+
+    /**
+     * Check if a packed move captures a piece
+     * 
+     * @param move Packed move
+     * @return True if the move captures, False otherwise
+     */
+    public static boolean isCapture(int move) {
+        return (move & (0xF << 16)) != 0;
+    }
+
+    /**
+     * Returns a move in coordinate notation, e.g. "e2e4" or "e7e8q"
+     * 
+     * @param move Packed move
+     * @return Start square, end square and promotion piece letter
+     */
+    public static String toString(int move) {
+        String s = Position.squareName(from(move)) + Position.squareName(to(move));
+        if (promotion(move) != 0) {
+            s += "pnbrqk".charAt(promotion(move));
+        }
+        return s;
+    }
+}
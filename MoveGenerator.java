@@ -0,0 +1,430 @@
+package ChessBoard;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Generates the moves of every piece type on a bitboard Position into a
+ * caller-provided int buffer, instead of probing canMove(...) against all 64
+ * target squares. Moves are packed into an int as described in Move.
+ */
+public class MoveGenerator {
+
+    /**
+     * Upper bound on the number of moves in any legal chess position, used to
+     * size move buffers
+     */
+    public static final int MAX_MOVES = 256;
+
+    /**
+     * Squares on the rank with index r == 2 (6th rank)
+     */
+    private static final long RANK_6 = 0xFFL << 16;
+
+    /**
+     * Squares on the rank with index r == 5 (3rd rank)
+     */
+    private static final long RANK_3 = 0xFFL << 40;
+
+    /**
+     * Squares on the rank with index r == 0 (8th rank)
+     */
+    private static final long RANK_8 = 0xFFL;
+
+    /**
+     * Squares on the rank with index r == 7 (1st rank)
+     */
+    private static final long RANK_1 = 0xFFL << 56;
+
+    /**
+     * Generates all pseudo-legal moves of the side to move, i.e. moves that follow
+     * the movement rules of each piece but may leave the own king in check
+     * 
+     * @param pos   Position to generate moves for
+     * @param moves Buffer of at least MAX_MOVES entries to write the moves into
+     * @return Number of moves written to the buffer
+     */
+    public static int generatePseudoLegal(Position pos, int[] moves) {
+        int side = pos.sideToMove;
+        long own = pos.occupancy[side];
+        long targets = ~own;
+        int n = generatePawnMoves(pos, true, true, moves, 0);
+        n = generatePieceMoves(pos, Position.KNIGHT, targets, moves, n);
+        n = generatePieceMoves(pos, Position.BISHOP, targets, moves, n);
+        n = generatePieceMoves(pos, Position.ROOK, targets, moves, n);
+        n = generatePieceMoves(pos, Position.QUEEN, targets, moves, n);
+        n = generatePieceMoves(pos, Position.KING, targets, moves, n);
+        return generateCastling(pos, moves, n);
+    }
+
+    /**
+     * Generates the pseudo-legal captures, en passant captures and promotions of
+     * the side to move, the moves a search tries before quiet moves
+     * 
+     * @param pos   Position to generate moves for
+     * @param moves Buffer of at least MAX_MOVES entries to write the moves into
+     * @return Number of moves written to the buffer
+     */
+    public static int generateCaptures(Position pos, int[] moves) {
+        long targets = pos.occupancy[1 - pos.sideToMove];
+        int n = generatePawnMoves(pos, true, false, moves, 0);
+        n = generatePieceMoves(pos, Position.KNIGHT, targets, moves, n);
+        n = generatePieceMoves(pos, Position.BISHOP, targets, moves, n);
+        n = generatePieceMoves(pos, Position.ROOK, targets, moves, n);
+        n = generatePieceMoves(pos, Position.QUEEN, targets, moves, n);
+        return generatePieceMoves(pos, Position.KING, targets, moves, n);
+    }
+
+    /**
+     * Generates the pseudo-legal moves of the side to move that generateCaptures
+     * leaves out: non-capturing, non-promoting moves and castling
+     * 
+     * @param pos   Position to generate moves for
+     * @param moves Buffer of at least MAX_MOVES entries to write the moves into
+     * @return Number of moves written to the buffer
+     */
+    public static int generateQuiets(Position pos, int[] moves) {
+        long targets = ~pos.occupied;
+        int n = generatePawnMoves(pos, false, true, moves, 0);
+        n = generatePieceMoves(pos, Position.KNIGHT, targets, moves, n);
+        n = generatePieceMoves(pos, Position.BISHOP, targets, moves, n);
+        n = generatePieceMoves(pos, Position.ROOK, targets, moves, n);
+        n = generatePieceMoves(pos, Position.QUEEN, targets, moves, n);
+        n = generatePieceMoves(pos, Position.KING, targets, moves, n);
+        return generateCastling(pos, moves, n);
+    }
+
+    /**
+     * Check if a packed move, e.g. from the transposition table or a killer slot,
+     * is a pseudo-legal move of the side to move. The move's piece and captured
+     * fields must match the board, so a move stored for another position is
+     * rejected.
+     * 
+     * @param pos  Position to check the move in
+     * @param move Packed move
+     * @return True if generatePseudoLegal would generate the move, False otherwise
+     */
+    public static boolean isPseudoLegal(Position pos, int move) {
+        if (move == Move.NONE) {
+            return false;
+        }
+        int side = pos.sideToMove;
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int piece = Move.piece(move);
+        int flag = Move.flag(move);
+        if (pos.squares[from] != piece || Position.sideOf(piece) != side) {
+            return false;
+        }
+        if (flag == Move.CASTLE) {
+            int king = Position.square(side == Position.WHITE ? 7 : 0, 4);
+            boolean kingside = to > from;
+            return from == king && to == (kingside ? king + 2 : king - 2)
+                    && move == Move.of(from, to, piece, Position.EMPTY, 0, Move.CASTLE) && canCastle(pos, kingside);
+        }
+        if (flag == Move.EN_PASSANT) {
+            return to == pos.epSquare && (Attacks.PAWN[side][from] & Position.bit(to)) != 0
+                    && Move.captured(move) == Position.pieceCode(1 - side, Position.PAWN);
+        }
+        if (pos.squares[to] != Move.captured(move)) {
+            return false;
+        }
+        if (Move.captured(move) != Position.EMPTY && Position.sideOf(Move.captured(move)) == side) {
+            return false;
+        }
+        int type = Position.pieceType(piece);
+        if (type != Position.PAWN) {
+            if (Move.promotion(move) != 0 || flag != 0) {
+                return false;
+            }
+            long attacks;
+            switch (type) {
+                case Position.KNIGHT:
+                    attacks = Attacks.KNIGHT[from];
+                    break;
+                case Position.BISHOP:
+                    attacks = Attacks.bishop(from, pos.occupied);
+                    break;
+                case Position.ROOK:
+                    attacks = Attacks.rook(from, pos.occupied);
+                    break;
+                case Position.QUEEN:
+                    attacks = Attacks.queen(from, pos.occupied);
+                    break;
+                default:
+                    attacks = Attacks.KING[from];
+                    break;
+            }
+            return (attacks & Position.bit(to)) != 0;
+        }
+
+        boolean lastRank = Position.rankOf(to) == (side == Position.WHITE ? 0 : 7);
+        if (lastRank != (Move.promotion(move) != 0)) {
+            return false;
+        }
+        int forward = side == Position.WHITE ? -8 : 8;
+        if (Move.captured(move) != Position.EMPTY) {
+            return flag == 0 && (Attacks.PAWN[side][from] & Position.bit(to)) != 0;
+        }
+        if (flag == Move.DOUBLE_PUSH) {
+            int startRank = side == Position.WHITE ? 6 : 1;
+            return Position.rankOf(from) == startRank && to == from + 2 * forward
+                    && pos.squares[from + forward] == Position.EMPTY;
+        }
+        return flag == 0 && to == from + forward;
+    }
+
+    /**
+     * Generates all legal moves of the side to move
+     * 
+     * @param pos   Position to generate moves for
+     * @param moves Buffer of at least MAX_MOVES entries to write the moves into
+     * @return Number of moves written to the buffer
+     */
+    public static int generateLegal(Position pos, int[] moves) {
+        int count = generatePseudoLegal(pos, moves);
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            if (isLegal(pos, moves[i])) {
+                moves[n++] = moves[i];
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Check if the side to move has at least one legal move
+     * 
+     * @param pos   Position to examine
+     * @param moves Buffer of at least MAX_MOVES entries, used as scratch space
+     * @return True if a legal move exists, False if the side is checkmated or
+     *         stalemated
+     */
+    public static boolean hasLegalMove(Position pos, int[] moves) {
+        int count = generatePseudoLegal(pos, moves);
+        for (int i = 0; i < count; i++) {
+            if (isLegal(pos, moves[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if a pseudo-legal move leaves the own king out of check. The move is
+     * not played; the king is tested against the occupancy the move would leave.
+     * 
+     * @param pos  Position the move was generated for
+     * @param move Packed pseudo-legal move
+     * @return True if the move is legal, False otherwise
+     */
+    public static boolean isLegal(Position pos, int move) {
+        int side = pos.sideToMove;
+        int from = Move.from(move);
+        int to = Move.to(move);
+        if (Move.flag(move) == Move.CASTLE) {
+            // squares the king passes were already checked when generating
+            return true;
+        }
+        int kingSq = pos.kingSquare(side);
+        if (from == kingSq) {
+            kingSq = to;
+        }
+        long occ = (pos.occupied ^ Position.bit(from)) | Position.bit(to);
+        long removed = Position.bit(to);
+        if (Move.flag(move) == Move.EN_PASSANT) {
+            int capturedSq = side == Position.WHITE ? to + 8 : to - 8;
+            occ ^= Position.bit(capturedSq);
+            removed = Position.bit(capturedSq);
+        }
+        return !pos.isAttacked(kingSq, 1 - side, occ, removed);
+    }
+
+    /**
+     * Generates pawn pushes, captures, promotions and en passant captures
+     * 
+     * @param pos   Position to generate moves for
+     * @param noisy True to generate captures, en passant and promotions
+     * @param quiet True to generate non-promoting pushes
+     * @param moves Buffer to write the moves into
+     * @param n     Index of the next free entry in the buffer
+     * @return Index of the next free entry after the pawn moves
+     */
+    private static int generatePawnMoves(Position pos, boolean noisy, boolean quiet, int[] moves, int n) {
+        int side = pos.sideToMove;
+        long pawns = pos.pieces(side, Position.PAWN);
+        long empty = ~pos.occupied;
+        long enemy = pos.occupancy[1 - side];
+        int pawn = Position.pieceCode(side, Position.PAWN);
+
+        // white moves up the ranks (to smaller square indexes), black moves down
+        int forward = side == Position.WHITE ? -8 : 8;
+        long single;
+        long dbl;
+        long promoRank;
+        if (side == Position.WHITE) {
+            single = (pawns >>> 8) & empty;
+            dbl = ((single & RANK_3) >>> 8) & empty;
+            promoRank = RANK_8;
+        } else {
+            single = (pawns << 8) & empty;
+            dbl = ((single & RANK_6) << 8) & empty;
+            promoRank = RANK_1;
+        }
+
+        if (!noisy) {
+            single &= ~promoRank;
+        }
+        if (!quiet) {
+            single &= promoRank;
+            dbl = 0;
+        }
+        for (long b = single; b != 0; b &= b - 1) {
+            int to = Long.numberOfTrailingZeros(b);
+            n = addPawnMove(pawn, to - forward, to, Position.EMPTY, (promoRank & Position.bit(to)) != 0, moves, n);
+        }
+        for (long b = dbl; b != 0; b &= b - 1) {
+            int to = Long.numberOfTrailingZeros(b);
+            moves[n++] = Move.of(to - forward - forward, to, pawn, Position.EMPTY, 0, Move.DOUBLE_PUSH);
+        }
+        if (!noisy) {
+            return n;
+        }
+        for (long b = pawns; b != 0; b &= b - 1) {
+            int from = Long.numberOfTrailingZeros(b);
+            for (long t = Attacks.PAWN[side][from] & enemy; t != 0; t &= t - 1) {
+                int to = Long.numberOfTrailingZeros(t);
+                n = addPawnMove(pawn, from, to, pos.squares[to], (promoRank & Position.bit(to)) != 0, moves, n);
+            }
+        }
+        if (pos.epSquare >= 0) {
+            // pawns that attack the en passant square are the ones that can use it
+            int enemyPawn = Position.pieceCode(1 - side, Position.PAWN);
+            for (long b = Attacks.PAWN[1 - side][pos.epSquare] & pawns; b != 0; b &= b - 1) {
+                moves[n++] = Move.of(Long.numberOfTrailingZeros(b), pos.epSquare, pawn, enemyPawn, 0,
+                        Move.EN_PASSANT);
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Adds a pawn move, expanded into the four promotions if it reaches the last
+     * rank
+     * 
+     * @param pawn     Piece code of the moving pawn
+     * @param from     Start square index
+     * @param to       End square index
+     * @param captured Piece code of the captured piece, or Position.EMPTY
+     * @param promote  True if the pawn reaches the last rank
+     * @param moves    Buffer to write the moves into
+     * @param n        Index of the next free entry in the buffer
+     * @return Index of the next free entry after the added moves
+     */
+    private static int addPawnMove(int pawn, int from, int to, int captured, boolean promote, int[] moves,
+            int n) {
+        if (promote) {
+            moves[n++] = Move.of(from, to, pawn, captured, Position.QUEEN, 0);
+            moves[n++] = Move.of(from, to, pawn, captured, Position.ROOK, 0);
+            moves[n++] = Move.of(from, to, pawn, captured, Position.BISHOP, 0);
+            moves[n++] = Move.of(from, to, pawn, captured, Position.KNIGHT, 0);
+        } else {
+            moves[n++] = Move.of(from, to, pawn, captured, 0, 0);
+        }
+        return n;
+    }
+
+    /**
+     * Generates the moves of all knights, bishops, rooks, queens or kings of the
+     * side to move
+     * 
+     * @param pos     Position to generate moves for
+     * @param type    Piece type index to generate for
+     * @param targets Bitboard of squares the pieces may move to
+     * @param moves   Buffer to write the moves into
+     * @param n       Index of the next free entry in the buffer
+     * @return Index of the next free entry after the added moves
+     */
+    private static int generatePieceMoves(Position pos, int type, long targets, int[] moves, int n) {
+        long occ = pos.occupied;
+        int piece = Position.pieceCode(pos.sideToMove, type);
+        for (long b = pos.pieces(pos.sideToMove, type); b != 0; b &= b - 1) {
+            int from = Long.numberOfTrailingZeros(b);
+            long attacks;
+            switch (type) {
+                case Position.KNIGHT:
+                    attacks = Attacks.KNIGHT[from];
+                    break;
+                case Position.BISHOP:
+                    attacks = Attacks.bishop(from, occ);
+                    break;
+                case Position.ROOK:
+                    attacks = Attacks.rook(from, occ);
+                    break;
+                case Position.QUEEN:
+                    attacks = Attacks.queen(from, occ);
+                    break;
+                default:
+                    attacks = Attacks.KING[from];
+                    break;
+            }
+            for (long t = attacks & targets; t != 0; t &= t - 1) {
+                int to = Long.numberOfTrailingZeros(t);
+                moves[n++] = Move.of(from, to, piece, pos.squares[to], 0, 0);
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Generates castling moves. The king may not castle out of, through or into
+     * check, and the squares between king and rook must be empty.
+     * 
+     * @param pos   Position to generate moves for
+     * @param moves Buffer to write the moves into
+     * @param n     Index of the next free entry in the buffer
+     * @return Index of the next free entry after the castling moves
+     */
+    private static int generateCastling(Position pos, int[] moves, int n) {
+        int side = pos.sideToMove;
+        int king = Position.square(side == Position.WHITE ? 7 : 0, 4);
+        int piece = Position.pieceCode(side, Position.KING);
+        if (canCastle(pos, true)) {
+            moves[n++] = Move.of(king, king + 2, piece, Position.EMPTY, 0, Move.CASTLE);
+        }
+        if (canCastle(pos, false)) {
+            moves[n++] = Move.of(king, king - 2, piece, Position.EMPTY, 0, Move.CASTLE);
+        }
+        return n;
+    }
+
+    /**
+     * Check if the side to move may castle: it still has the right, the squares
+     * between king and rook are empty, and the king is not in check and does not
+     * pass or land on an attacked square
+     * 
+     * @param pos      Position to examine
+     * @param kingside True for castling kingside, False for queenside
+     * @return True if castling is legal, False otherwise
+     */
+    private static boolean canCastle(Position pos, boolean kingside) {
+        int side = pos.sideToMove;
+        int right = side == Position.WHITE ? (kingside ? Position.WHITE_KINGSIDE : Position.WHITE_QUEENSIDE)
+                : (kingside ? Position.BLACK_KINGSIDE : Position.BLACK_QUEENSIDE);
+        if ((pos.castling & right) == 0) {
+            return false;
+        }
+        int r = side == Position.WHITE ? 7 : 0;
+        int king = Position.square(r, 4);
+        int enemy = 1 - side;
+        if (kingside) {
+            return pos.notOccupied(r, 5) && pos.notOccupied(r, 6) && !pos.isAttacked(king, enemy)
+                    && !pos.isAttacked(king + 1, enemy) && !pos.isAttacked(king + 2, enemy);
+        }
+        return pos.notOccupied(r, 3) && pos.notOccupied(r, 2) && pos.notOccupied(r, 1)
+                && !pos.isAttacked(king, enemy) && !pos.isAttacked(king - 1, enemy)
+                && !pos.isAttacked(king - 2, enemy);
+    }
+}
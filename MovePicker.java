@@ -0,0 +1,300 @@
+package ChessEngine;
+
+import ChessBoard.*;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Hands out the pseudo-legal moves of a position one at a time, best guess
+ * first, in stages: the transposition table move, captures by most valuable
+ * victim / least valuable attacker, the two killer moves of the ply, quiet
+ * moves by history score, and last the captures that lose material by static
+ * exchange evaluation. A stage is only generated when the previous one is
+ * used up, so a beta cutoff early on skips generating the rest. A picker is
+ * reused for every node at its ply, so picking allocates nothing.
+ */
+class MovePicker {
+
+    /**
+     * Stage that returns the transposition table move
+     */
+    private static final int TT_MOVE = 0;
+
+    /**
+     * Stage that generates and scores the captures
+     */
+    private static final int GENERATE_CAPTURES = 1;
+
+    /**
+     * Stage that returns the captures, best first
+     */
+    private static final int CAPTURES = 2;
+
+    /**
+     * Stage that returns the first killer move
+     */
+    private static final int KILLER_1 = 3;
+
+    /**
+     * Stage that returns the second killer move
+     */
+    private static final int KILLER_2 = 4;
+
+    /**
+     * Stage that generates and scores the quiet moves
+     */
+    private static final int GENERATE_QUIETS = 5;
+
+    /**
+     * Stage that returns the quiet moves, best first
+     */
+    private static final int QUIETS = 6;
+
+    /**
+     * Stage that returns the captures that lose material
+     */
+    private static final int BAD_CAPTURES = 7;
+
+    /**
+     * Stage after every move was returned
+     */
+    private static final int DONE = 8;
+
+    /**
+     * Moves of the current stage
+     */
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+    /**
+     * Ordering score of each entry in moves
+     */
+    private final int[] scores = new int[MoveGenerator.MAX_MOVES];
+
+    /**
+     * Captures put off to the end because they lose material
+     */
+    private final int[] badCaptures = new int[MoveGenerator.MAX_MOVES];
+
+    /**
+     * Scratch buffer of the static exchange evaluations
+     */
+    private final int[] seeGain = new int[See.MAX_EXCHANGE];
+
+    /**
+     * Number of entries in badCaptures
+     */
+    private int badCount;
+
+    /**
+     * Position the moves are picked for
+     */
+    private Position pos;
+
+    /**
+     * History scores indexed by piece code and end square
+     */
+    private int[][] history;
+
+    /**
+     * Move tried first, or Move.NONE
+     */
+    private int ttMove;
+
+    /**
+     * Killer moves of the ply, or Move.NONE
+     */
+    private int killer1;
+
+    /**
+     * Second killer move of the ply, or Move.NONE
+     */
+    private int killer2;
+
+    /**
+     * True to stop after the captures, e.g. in quiescence search
+     */
+    private boolean capturesOnly;
+
+    /**
+     * Current stage
+     */
+    private int stage;
+
+    /**
+     * Number of moves of the current stage
+     */
+    private int count;
+
+    /**
+     * Index of the next move of the current stage
+     */
+    private int index;
+
+    /**
+     * Starts picking moves for a position
+     * 
+     * @param pos          Position to pick moves for
+     * @param ttMove       Move to try first, or Move.NONE
+     * @param killer1      First killer move of the ply, or Move.NONE
+     * @param killer2      Second killer move of the ply, or Move.NONE
+     * @param history      History scores indexed by piece code and end square
+     * @param capturesOnly True to only return captures and promotions that do not
+     *                     lose material
+     */
+    void init(Position pos, int ttMove, int killer1, int killer2, int[][] history, boolean capturesOnly) {
+        this.pos = pos;
+        this.history = history;
+        this.capturesOnly = capturesOnly;
+        // moves from another position (hash collision, old killer) are dropped
+        this.ttMove = MoveGenerator.isPseudoLegal(pos, ttMove)
+                && (!capturesOnly || isNoisy(ttMove)) ? ttMove : Move.NONE;
+        this.killer1 = killer1;
+        this.killer2 = killer2;
+        badCount = 0;
+        stage = TT_MOVE;
+    }
+
+    /**
+     * Returns the next pseudo-legal move; the caller still checks legality. A
+     * stage with nothing left to return falls through to the next one.
+     * 
+     * @return Packed move, or Move.NONE when every move was returned
+     */
+    @SuppressWarnings("fallthrough")
+    int next() {
+        switch (stage) {
+            case TT_MOVE:
+                stage = GENERATE_CAPTURES;
+                if (ttMove != Move.NONE) {
+                    return ttMove;
+                }
+                // fall through
+            case GENERATE_CAPTURES:
+                count = MoveGenerator.generateCaptures(pos, moves);
+                for (int i = 0; i < count; i++) {
+                    scores[i] = mvvLva(moves[i]);
+                }
+                index = 0;
+                stage = CAPTURES;
+                // fall through
+            case CAPTURES:
+                while (index < count) {
+                    int move = pickBest();
+                    if (move == ttMove) {
+                        continue;
+                    }
+                    if (See.isGoodCapture(pos, move, seeGain)) {
+                        return move;
+                    }
+                    badCaptures[badCount++] = move;
+                }
+                if (capturesOnly) {
+                    stage = DONE;
+                    return Move.NONE;
+                }
+                stage = KILLER_1;
+                // fall through
+            case KILLER_1:
+                stage = KILLER_2;
+                if (isUsableKiller(killer1)) {
+                    return killer1;
+                }
+                // fall through
+            case KILLER_2:
+                stage = GENERATE_QUIETS;
+                if (killer2 != killer1 && isUsableKiller(killer2)) {
+                    return killer2;
+                }
+                // fall through
+            case GENERATE_QUIETS:
+                count = MoveGenerator.generateQuiets(pos, moves);
+                for (int i = 0; i < count; i++) {
+                    scores[i] = history[Move.piece(moves[i])][Move.to(moves[i])];
+                }
+                index = 0;
+                stage = QUIETS;
+                // fall through
+            case QUIETS:
+                while (index < count) {
+                    int move = pickBest();
+                    if (move != ttMove && move != killer1 && move != killer2) {
+                        return move;
+                    }
+                }
+                index = 0;
+                stage = BAD_CAPTURES;
+                // fall through
+            case BAD_CAPTURES:
+                if (index < badCount) {
+                    return badCaptures[index++];
+                }
+                stage = DONE;
+                // fall through
+            default:
+                return Move.NONE;
+        }
+    }
+
+    /**
+     * Check if a move is a capture or promotion, i.e. generated by
+     * MoveGenerator.generateCaptures
+     * 
+     * @param move Packed move
+     * @return True if the move is a capture or promotion, False otherwise
+     */
+    static boolean isNoisy(int move) {
+        return Move.isCapture(move) || Move.promotion(move) != 0;
+    }
+
+    /**
+     * Selects the highest scored of the remaining moves of the stage and swaps it
+     * to the front, so only as much of the list is sorted as is used
+     * 
+     * @return The best remaining move
+     */
+    private int pickBest() {
+        int best = index;
+        for (int i = index + 1; i < count; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        int move = moves[best];
+        moves[best] = moves[index];
+        scores[best] = scores[index];
+        moves[index] = move;
+        index++;
+        return move;
+    }
+
+    /**
+     * Check if a killer move can be played here and was not returned already
+     * 
+     * @param killer Killer move, or Move.NONE
+     * @return True if the killer is a quiet pseudo-legal move other than the
+     *         transposition table move, False otherwise
+     */
+    private boolean isUsableKiller(int killer) {
+        return killer != ttMove && !isNoisy(killer) && MoveGenerator.isPseudoLegal(pos, killer);
+    }
+
+    /**
+     * Most valuable victim / least valuable attacker score of a capture or
+     * promotion
+     * 
+     * @param move Packed capture or promotion
+     * @return Ordering score, higher is tried first
+     */
+    private static int mvvLva(int move) {
+        // a queen promotion ranks with capturing a queen; underpromotions last
+        int score = Move.promotion(move) == Position.QUEEN ? Position.QUEEN * 8 : 0;
+        int captured = Move.captured(move);
+        if (captured != Position.EMPTY) {
+            score += Position.pieceType(captured) * 8 + (Position.KING - Position.pieceType(Move.piece(move)));
+        }
+        return score;
+    }
+}
@@ -0,0 +1,212 @@
+package ChessEngine;
+
+import ChessBoard.*;
+import java.util.function.Consumer;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Lazy SMP search: helper threads search the same root position on their own
+ * copies of it while sharing one TranspositionTable. The helpers do not talk to
+ * each other; they speed up the main search by filling the table with results
+ * it would otherwise compute itself. The helpers start one, two or three half
+ * moves deeper than the main thread, or level with it, in turn, so the threads
+ * do not all search the same tree in lockstep. A node limit counts the nodes of
+ * all threads. The main thread's result is reported, and the helpers are
+ * stopped when it is done.
+ */
+public class ParallelSearch {
+
+    /**
+     * Position to search; it is restored when the search returns
+     */
+    private final Position pos;
+
+    /**
+     * Transposition table shared by all threads
+     */
+    private final TranspositionTable tt;
+
+    /**
+     * Number of threads, including the calling thread
+     */
+    private final int threads;
+
+    /**
+     * Search of the calling thread while a search runs, so stop() can reach it
+     */
+    private volatile Search running;
+
+    /**
+     * Set by stop(), so a stop that arrives before the search thread got going is
+     * not lost
+     */
+    private volatile boolean stopRequested;
+
+    /**
+     * Selective search features used by every thread
+     */
+    private SearchOptions options = new SearchOptions();
+
+    /**
+     * Called with the result of each completed iteration of the main thread, or
+     * null
+     */
+    private Consumer<SearchResult> iterationListener;
+
+    /**
+     * 3-Arg constructor for ParallelSearch
+     * 
+     * @param pos     Position to search
+     * @param tt      Transposition table shared by all threads
+     * @param threads Number of threads, including the calling thread
+     */
+    public ParallelSearch(Position pos, TranspositionTable tt, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1: " + threads);
+        }
+        this.pos = pos;
+        this.tt = tt;
+        this.threads = threads;
+    }
+
+    /**
+     * Sets the selective search features every thread uses from the next search
+     * on
+     * 
+     * @param options Features to switch on or off
+     */
+    public void setOptions(SearchOptions options) {
+        this.options = options;
+    }
+
+    /**
+     * Sets a listener that is called on the main search thread with the result
+     * of each of its completed iterations. The node count of a reported result
+     * includes the helpers' nodes so far, read while they run, so it is only
+     * approximate.
+     * 
+     * @param listener Receiver of the iteration results, or null for none
+     */
+    public void setIterationListener(Consumer<SearchResult> listener) {
+        this.iterationListener = listener;
+    }
+
+    /**
+     * Searches with iterative deepening up to maxDepth on all threads
+     * 
+     * @param maxDepth Deepest iteration of the main thread in half moves
+     * @return Result of the main thread's deepest completed iteration, with the
+     *         nodes of all threads
+     */
+    public SearchResult search(int maxDepth) {
+        return search(new SearchLimits().setDepth(maxDepth));
+    }
+
+    /**
+     * Searches on all threads until a limit of the main thread is reached or
+     * stop() is called
+     * 
+     * @param limits Depth, node and time limits of the main thread
+     * @return Result of the main thread's deepest completed iteration, with the
+     *         nodes of all threads
+     */
+    public SearchResult search(SearchLimits limits) {
+        Search main = new Search(pos, tt);
+        main.setOptions(options);
+        running = main;
+        if (stopRequested) {
+            main.stop();
+        }
+        Search[] helpers = new Search[threads - 1];
+        Thread[] workers = new Thread[threads - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            Search helper = new Search(pos.copy(), tt);
+            helper.setOptions(options);
+            int startDepth = 1 + (i + 1) % 4;
+            helpers[i] = helper;
+            // helpers have no limits of their own; the main thread stops them
+            SearchLimits helperLimits = new SearchLimits().setInfinite(true);
+            workers[i] = new Thread(() -> helper.run(helperLimits, startDepth), "search-helper-" + (i + 1));
+            workers[i].setDaemon(true);
+        }
+
+        main.setHelpers(helpers);
+
+        Consumer<SearchResult> listener = iterationListener;
+        if (listener != null) {
+            main.setIterationListener(r -> {
+                long nodes = r.getNodes();
+                for (Search helper : helpers) {
+                    nodes += helper.getNodes();
+                }
+                listener.accept(new SearchResult(r.getBestMove(), r.getScore(), r.getDepth(), r.getPv(), nodes));
+            });
+        }
+
+        // the main search starts the table generation; helpers only join it
+        tt.newSearch();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        SearchResult result = main.run(limits, 1);
+        running = null;
+
+        long nodes = result.getNodes();
+        for (int i = 0; i < helpers.length; i++) {
+            helpers[i].stop();
+        }
+        for (int i = 0; i < workers.length; i++) {
+            try {
+                workers[i].join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            nodes += helpers[i].getNodes();
+        }
+        return new SearchResult(result.getBestMove(), result.getScore(), result.getDepth(), result.getPv(), nodes);
+    }
+
+    /**
+     * Stops a search running on another thread; the helpers stop with it. A stop
+     * that comes before the search started also stops it, and every later
+     * search of this ParallelSearch, so a new one is needed per search that may
+     * be stopped.
+     */
+    public void stop() {
+        stopRequested = true;
+        Search main = running;
+        if (main != null) {
+            main.stop();
+        }
+    }
+
+    /**
+     * Searches a position on several threads and prints time to depth.
+     * Usage: ParallelSearch threads depth [fen]
+     * 
+     * @param args Main method arguments
+     */
+    public static void main(String[] args) {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        Position pos = Position.startPosition();
+        if (args.length > 2) {
+            StringBuilder fen = new StringBuilder(args[2]);
+            for (int i = 3; i < args.length; i++) {
+                fen.append(' ').append(args[i]);
+            }
+            pos = Position.fromFen(fen.toString());
+        }
+        long start = System.nanoTime();
+        SearchResult r = new ParallelSearch(pos, new TranspositionTable(Search.DEFAULT_HASH_MB), threads)
+                .search(depth);
+        long ms = (System.nanoTime() - start) / 1000000;
+        System.out.println("threads " + threads + " depth " + r.getDepth() + " score " + r.getScore() + " nodes "
+                + r.getNodes() + " time " + ms + " ms");
+        System.out.println("bestmove " + Move.toString(r.getBestMove()) + " pv " + r.pvString());
+    }
+}
@@ -12,11 +12,6 @@ import ChessBoard.*;
  */
 public class Pawn extends ChessPiece {
 
-    /**
-     * '*' represents pawn is not being promoted
-     */
-    private final static char NO_PROMOTION = '*';
-
     /**
      * True if pawn piece can be enpassanted
      */
@@ -27,12 +22,6 @@ public class Pawn extends ChessPiece {
      */
     public boolean useEnpassant = false;
 
-    /**
-     * Character that represents what piece next pawn is being promoted to ('*' for
-     * no promotion)
-     */
-    public static char promotionTo = NO_PROMOTION; // '*' represents no current state of promotion on pawn
-
     /**
      * 3-Arg constructor for Pawn
      * 
@@ -77,7 +66,7 @@ public class Pawn extends ChessPiece {
     }
 
     @Override
-    public boolean canMove(int newR, int newF, ChessPiece[][] chessBoard) {
+    public boolean canMove(int newR, int newF, ChessPiece[][] chessBoard, GameState state) {
         int move = -1; // white moves up the ranks (from larger rank index to smaller index)
         if (this.teamColor == BLACK)
             move *= -1; // black moves down the ranks (from smaller index to larger index)
@@ -121,7 +110,7 @@ public class Pawn extends ChessPiece {
     }
 
     @Override
-    public boolean movePiece(int newR, int newF, ChessPiece[][] chessBoard) {
+    public boolean movePiece(int newR, int newF, ChessPiece[][] chessBoard, GameState state) {
 
         int move = -1; // white moves up the ranks (from larger rank index to smaller index)
         if (this.teamColor == BLACK) {
@@ -131,7 +120,7 @@ public class Pawn extends ChessPiece {
         int currR = this.r;
         int currF = this.f;
 
-        if (canMove(newR, newF, chessBoard)) {
+        if (canMove(newR, newF, chessBoard, state)) {
 
             // check if pawn piece is trying to Enpassant
             if (useEnpassant) {
@@ -142,7 +131,7 @@ public class Pawn extends ChessPiece {
             }
             // check for promotion (promotion will vary depending on client input in
             // ChessController.java)
-            if (promotionTo != NO_PROMOTION) {
+            if (state.promotionTo != GameState.NO_PROMOTION) {
                 // first try to get the move itself is board is empty at new position
                 if (ChessBoard.notOccupied(newR, newF, chessBoard)) {
                     chessBoard[currR][currF].setBoardWithMove(newR, newF, chessBoard);
@@ -153,16 +142,16 @@ public class Pawn extends ChessPiece {
                 }
                 // if space is taken by same team piece, can't move there/promote
                 else {
-                    promotionTo = NO_PROMOTION;
+                    state.promotionTo = GameState.NO_PROMOTION;
                     return false;
                 }
 
                 // after trying to move or take, we now try the actual promotion
-                if (promoteTo(chessBoard, newR, newF, promotionTo)) {
-                    promotionTo = NO_PROMOTION;
+                if (promoteTo(chessBoard, newR, newF, state.promotionTo)) {
+                    state.promotionTo = GameState.NO_PROMOTION;
                     return true;
                 } else {
-                    promotionTo = NO_PROMOTION;
+                    state.promotionTo = GameState.NO_PROMOTION;
                     return false;
                 }
             }
@@ -186,18 +175,19 @@ public class Pawn extends ChessPiece {
     }
 
     /**
-     * Resets enpassant vulnerability of all Pawn pieces on board
+     * Resets enpassant vulnerability of a team's Pawn pieces, visiting only the
+     * team's pieces instead of every square of the board
      * 
      * @param team       Color of team to reset all enpassants on
+     * @param pieceLists Piece lists of the board
      * @param chessBoard 2D array of ChessPieces that the pawns are on
      */
-    public static void resetAllEnpassants(int team, ChessPiece[][] chessBoard) {
-        for (int r = 0; r < ChessBoard.N; r++) {
-            for (int f = 0; f < ChessBoard.N; f++) {
-                if (chessBoard[r][f] != null && chessBoard[r][f].teamColor == team
-                        && chessBoard[r][f] instanceof Pawn) {
-                    chessBoard[r][f].canBeEnpassanted = false;
-                }
+    public static void resetAllEnpassants(int team, PieceLists pieceLists, ChessPiece[][] chessBoard) {
+        int count = pieceLists.prune(team, chessBoard);
+        for (int i = 0; i < count; i++) {
+            ChessPiece p = pieceLists.get(team, i);
+            if (p instanceof Pawn) {
+                p.canBeEnpassanted = false;
             }
         }
     }
@@ -0,0 +1,156 @@
+package ChessEngine;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Direct-mapped cache of pawn structure results keyed by Position.pawnKey().
+ * Pawns move rarely compared to the other pieces, so most leaves of a search
+ * find their pawn structure already scored here. Entries are kept in parallel
+ * primitive arrays and simply overwritten on a collision. A cache belongs to one
+ * search thread.
+ */
+public class PawnCache {
+
+    /**
+     * Default number of entries, a power of two
+     */
+    public static final int DEFAULT_ENTRIES = 1 << 14;
+
+    /**
+     * Pawn key of each entry
+     */
+    private final long[] keys;
+
+    /**
+     * Middlegame pawn structure score of each entry, from White's point of view
+     */
+    private final int[] mgScores;
+
+    /**
+     * Endgame pawn structure score of each entry, from White's point of view
+     */
+    private final int[] egScores;
+
+    /**
+     * Passed pawns of both sides of each entry
+     */
+    private final long[] passedPawns;
+
+    /**
+     * Number of entries minus one
+     */
+    private final int mask;
+
+    /**
+     * Number of probes that found their entry
+     */
+    private long hits;
+
+    /**
+     * Number of probes
+     */
+    private long probes;
+
+    /**
+     * No-arg constructor for a PawnCache of DEFAULT_ENTRIES
+     */
+    public PawnCache() {
+        this(DEFAULT_ENTRIES);
+    }
+
+    /**
+     * 1-Arg constructor for PawnCache
+     * 
+     * @param entries Number of entries, rounded down to a power of two
+     */
+    public PawnCache(int entries) {
+        if (entries < 1) {
+            throw new IllegalArgumentException("Pawn cache needs at least one entry: " + entries);
+        }
+        int size = Integer.highestOneBit(entries);
+        keys = new long[size];
+        mgScores = new int[size];
+        egScores = new int[size];
+        passedPawns = new long[size];
+        mask = size - 1;
+        // key 0 (no pawns at all) must not hit an empty entry by accident
+        keys[0] = -1;
+    }
+
+    /**
+     * Looks up a pawn structure
+     * 
+     * @param pawnKey Pawn key of the position
+     * @return Index of the entry to read with mgScore/egScore/passedPawns, or -1
+     *         if the structure is not cached
+     */
+    public int probe(long pawnKey) {
+        probes++;
+        int i = (int) pawnKey & mask;
+        if (keys[i] == pawnKey) {
+            hits++;
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Stores a scored pawn structure, replacing whatever shares its entry
+     * 
+     * @param pawnKey Pawn key of the position
+     * @param mg      Middlegame score from White's point of view
+     * @param eg      Endgame score from White's point of view
+     * @param passed  Passed pawns of both sides
+     * @return Index of the entry
+     */
+    public int store(long pawnKey, int mg, int eg, long passed) {
+        int i = (int) pawnKey & mask;
+        keys[i] = pawnKey;
+        mgScores[i] = mg;
+        egScores[i] = eg;
+        passedPawns[i] = passed;
+        return i;
+    }
+
+    /**
+     * Returns the middlegame score of an entry
+     * 
+     * @param i Entry index from probe or store
+     * @return Score from White's point of view
+     */
+    public int mgScore(int i) {
+        return mgScores[i];
+    }
+
+    /**
+     * Returns the endgame score of an entry
+     * 
+     * @param i Entry index from probe or store
+     * @return Score from White's point of view
+     */
+    public int egScore(int i) {
+        return egScores[i];
+    }
+
+    /**
+     * Returns the passed pawns of an entry
+     * 
+     * @param i Entry index from probe or store
+     * @return Bitboard of the passed pawns of both sides
+     */
+    public long passedPawns(int i) {
+        return passedPawns[i];
+    }
+
+    /**
+     * Returns the share of probes that found their entry
+     * 
+     * @return Hit rate from 0 to 1, or 0 before the first probe
+     */
+    public double hitRate() {
+        return probes == 0 ? 0 : (double) hits / probes;
+    }
+}
@@ -0,0 +1,223 @@
+package ChessBoard;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Perft (performance test) counts the leaf nodes of the legal move tree of a
+ * position to a fixed depth. The counts are compared against published values
+ * for standard reference positions, which checks the move rules (castling, en
+ * passant, promotions, pins, checks), and the time taken gives a nodes per
+ * second throughput baseline for the move generator.
+ */
+public class Perft {
+
+    /**
+     * Reference positions: name, FEN, then the expected leaf counts for depth 1,
+     * 2, 3, ...
+     */
+    private static final Object[][] REFERENCE = {
+            { "start position", "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                    new long[] { 20, 400, 8902, 197281, 4865609, 119060324 } },
+            { "kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                    new long[] { 48, 2039, 97862, 4085603, 193690690 } },
+            { "rook endgame", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                    new long[] { 14, 191, 2812, 43238, 674624, 11030083 } },
+            { "promotions", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                    new long[] { 6, 264, 9467, 422333, 15833292 } },
+            { "promotion captures", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                    new long[] { 44, 1486, 62379, 2103487, 89941194 } },
+            { "middlegame", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                    new long[] { 46, 2079, 89890, 3894594, 164075551 } },
+            { "illegal en passant (pin)", "3k4/3p4/8/K1P4r/8/8/8/8 b - - 0 1",
+                    new long[] { 18, 92, 1670, 10138, 185429, 1134888 } },
+            { "illegal en passant (bishop)", "8/8/4k3/8/2p5/8/B2P2K1/8 w - - 0 1",
+                    new long[] { 13, 102, 1266, 10276, 135655, 1015133 } },
+            { "en passant gives check", "8/8/1k6/2b5/2pP4/8/5K2/8 b - d3 0 1",
+                    new long[] { 15, 126, 1928, 13931, 206379, 1440467 } },
+            { "short castling gives check", "5k2/8/8/8/8/8/8/4K2R w K - 0 1",
+                    new long[] { 15, 66, 1198, 6399, 120330, 661072 } },
+            { "long castling gives check", "3k4/8/8/8/8/8/8/R3K3 w Q - 0 1",
+                    new long[] { 16, 71, 1286, 7418, 141077, 803711 } },
+            { "castling rights lost by capture", "r3k2r/1b4bq/8/8/8/8/7B/R3K2R w KQkq - 0 1",
+                    new long[] { 26, 1141, 27826, 1274206 } },
+            { "castling prevented", "r3k2r/8/3Q4/8/8/5q2/8/R3K2R b KQkq - 0 1",
+                    new long[] { 44, 1494, 50509, 1720476 } },
+            { "castling right without its king", "4k3/8/8/8/8/8/8/4K3 w K - 0 1",
+                    new long[] { 5, 25, 170, 1156, 7922, 53896 } },
+            { "castling rights without their rooks", "r3k2r/8/8/8/8/8/8/4K3 w KQkq - 0 1",
+                    new long[] { 5, 130, 782, 22180, 118882, 3517770 } },
+            { "promote out of check", "2K2r2/4P3/8/8/8/8/8/3k4 w - - 0 1",
+                    new long[] { 11, 133, 1442, 19174, 266199, 3821001 } },
+            { "discovered check", "8/8/1P2K3/8/2n5/1q6/8/5k2 b - - 0 1",
+                    new long[] { 29, 165, 5160, 31961, 1004658 } },
+            { "promote to give check", "4k3/1P6/8/8/8/8/K7/8 w - - 0 1",
+                    new long[] { 9, 40, 472, 2661, 38983, 217342 } },
+            { "underpromote to give check", "8/P1k5/K7/8/8/8/8/8 w - - 0 1",
+                    new long[] { 6, 27, 273, 1329, 18135, 92683 } },
+            { "self stalemate", "K1k5/8/P7/8/8/8/8/8 w - - 0 1",
+                    new long[] { 2, 6, 13, 63, 382, 2217 } },
+            { "stalemate and checkmate", "8/k1P5/8/1K6/8/8/8/8 w - - 0 1",
+                    new long[] { 10, 25, 268, 926, 10857, 43261, 567584 } },
+            { "stalemate and checkmate 2", "8/8/2k5/5q2/5n2/8/5K2/8 b - - 0 1",
+                    new long[] { 37, 183, 6559, 23527 } },
+    };
+
+    /**
+     * Deepest perft this harness can run
+     */
+    private static final int MAX_DEPTH = 64;
+
+    /**
+     * Move buffers reused at every depth, so counting allocates nothing
+     */
+    private final int[][] moves = new int[MAX_DEPTH][MoveGenerator.MAX_MOVES];
+
+    /**
+     * Position being counted; moves are made and unmade on it in place
+     */
+    private final Position pos;
+
+    /**
+     * 1-Arg constructor for a Perft counter
+     * 
+     * @param pos Position to count leaf nodes from
+     */
+    public Perft(Position pos) {
+        this.pos = pos;
+    }
+
+    /**
+     * Counts the leaf nodes of the legal move tree
+     * 
+     * @param depth Number of half moves to look ahead
+     * @return Number of positions reached after exactly depth half moves
+     */
+    public long perft(int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        int[] buffer = moves[depth - 1];
+        int count = MoveGenerator.generateLegal(pos, buffer);
+        // the moves themselves are the leaves at depth 1 (bulk counting)
+        if (depth == 1) {
+            return count;
+        }
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            pos.makeMove(buffer[i]);
+            nodes += perft(depth - 1);
+            pos.unmakeMove(buffer[i]);
+        }
+        return nodes;
+    }
+
+    /**
+     * Counts and prints the leaf nodes below each legal root move, used to find
+     * which move a wrong perft count comes from
+     * 
+     * @param depth Number of half moves to look ahead, including the root move
+     * @return Total number of leaf nodes
+     */
+    public long divide(int depth) {
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateLegal(pos, buffer);
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            pos.makeMove(buffer[i]);
+            long nodes = perft(depth - 1);
+            pos.unmakeMove(buffer[i]);
+            System.out.println(Move.toString(buffer[i]) + ": " + nodes);
+            total += nodes;
+        }
+        System.out.println();
+        System.out.println("Moves: " + count);
+        System.out.println("Nodes: " + total);
+        return total;
+    }
+
+    /**
+     * Runs the reference suite, or a single perft / divide.
+     * Usage: Perft [maxDepth] | Perft perft depth fen | Perft divide depth fen
+     * 
+     * @param args Main method arguments
+     */
+    public static void main(String[] args) {
+        if (args.length >= 3 && (args[0].equals("perft") || args[0].equals("divide"))) {
+            int depth = Integer.parseInt(args[1]);
+            StringBuilder fen = new StringBuilder(args[2]);
+            for (int i = 3; i < args.length; i++) {
+                fen.append(' ').append(args[i]);
+            }
+            Perft p = new Perft(Position.fromFen(fen.toString()));
+            if (args[0].equals("divide")) {
+                p.divide(depth);
+            } else {
+                long start = System.nanoTime();
+                long nodes = p.perft(depth);
+                printResult("perft " + depth, nodes, -1, System.nanoTime() - start);
+            }
+            return;
+        }
+
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        boolean allPassed = runSuite(maxDepth);
+        System.out.println();
+        System.out.println(allPassed ? "All perft counts match" : "PERFT MISMATCH");
+        if (!allPassed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs every reference position up to maxDepth and prints counts, time and
+     * nodes per second
+     * 
+     * @param maxDepth Deepest depth to run for any position
+     * @return True if every count matched its reference value, False otherwise
+     */
+    public static boolean runSuite(int maxDepth) {
+        boolean allPassed = true;
+        long totalNodes = 0;
+        long totalNanos = 0;
+        for (Object[] ref : REFERENCE) {
+            String name = (String) ref[0];
+            long[] expected = (long[]) ref[2];
+            System.out.println(name + "  [" + ref[1] + "]");
+            Perft p = new Perft(Position.fromFen((String) ref[1]));
+            for (int depth = 1; depth <= Math.min(maxDepth, expected.length); depth++) {
+                long start = System.nanoTime();
+                long nodes = p.perft(depth);
+                long nanos = System.nanoTime() - start;
+                totalNodes += nodes;
+                totalNanos += nanos;
+                allPassed &= printResult("  depth " + depth, nodes, expected[depth - 1], nanos);
+            }
+        }
+        System.out.println();
+        printResult("total", totalNodes, -1, totalNanos);
+        return allPassed;
+    }
+
+    /**
+     * Prints one perft result line
+     * 
+     * @param label    Text to start the line with
+     * @param nodes    Leaf nodes counted
+     * @param expected Reference count, or -1 if there is none
+     * @param nanos    Time taken in nanoseconds
+     * @return True if nodes matched expected (or there was none), False otherwise
+     */
+    private static boolean printResult(String label, long nodes, long expected, long nanos) {
+        long nps = nanos > 0 ? nodes * 1000000000L / nanos : 0;
+        String line = label + ": " + nodes + " nodes in " + (nanos / 1000000) + " ms (" + nps + " nodes/sec)";
+        boolean passed = expected < 0 || nodes == expected;
+        if (expected >= 0) {
+            line += passed ? "  OK" : "  FAIL, expected " + expected;
+        }
+        System.out.println(line);
+        return passed;
+    }
+}
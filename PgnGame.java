@@ -0,0 +1,154 @@
+package ChessBoard;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * One game of a PGN file as read by PgnReader: its tag pairs, the moves of the
+ * main line in SAN and the game result. Comments, variations and annotations
+ * are not kept. The moves are not checked against the rules here.
+ */
+public class PgnGame {
+
+    /**
+     * Result of a game that is unfinished or whose result is unknown
+     */
+    public static final String UNKNOWN_RESULT = "*";
+
+    /**
+     * Number of the game in its file, starting at 1
+     */
+    private final long number;
+
+    /**
+     * Tag pairs in file order, e.g. "White" -> "Carlsen, Magnus"
+     */
+    private final Map<String, String> tags = new LinkedHashMap<String, String>();
+
+    /**
+     * Moves of the main line in SAN
+     */
+    private final List<String> moves = new ArrayList<String>();
+
+    /**
+     * Result from the end of the movetext ("1-0", "0-1", "1/2-1/2" or "*")
+     */
+    private String result = UNKNOWN_RESULT;
+
+    /**
+     * 1-Arg constructor for PgnGame
+     * 
+     * @param number Number of the game in its file, starting at 1
+     */
+    public PgnGame(long number) {
+        this.number = number;
+    }
+
+    /**
+     * Sets a tag pair, replacing an earlier value of the same tag
+     * 
+     * @param name  Tag name
+     * @param value Tag value
+     */
+    public void setTag(String name, String value) {
+        tags.put(name, value);
+    }
+
+    /**
+     * Appends a move to the main line
+     * 
+     * @param san Move in SAN
+     */
+    public void addMove(String san) {
+        moves.add(san);
+    }
+
+    /**
+     * Sets the result from the end of the movetext
+     * 
+     * @param result "1-0", "0-1", "1/2-1/2" or "*"
+     */
+    public void setResult(String result) {
+        this.result = result;
+    }
+
+    /**
+     * Returns the number of the game in its file
+     * 
+     * @return Game number, starting at 1
+     */
+    public long getNumber() {
+        return number;
+    }
+
+    /**
+     * Returns the value of a tag
+     * 
+     * @param name Tag name
+     * @return Tag value, or null if the game has no such tag
+     */
+    public String getTag(String name) {
+        return tags.get(name);
+    }
+
+    /**
+     * Returns all tag pairs
+     * 
+     * @return Read-only map of tag names to values, in file order
+     */
+    public Map<String, String> getTags() {
+        return Collections.unmodifiableMap(tags);
+    }
+
+    /**
+     * Returns the moves of the main line
+     * 
+     * @return Read-only list of moves in SAN
+     */
+    public List<String> getMoves() {
+        return Collections.unmodifiableList(moves);
+    }
+
+    /**
+     * Returns the result from the end of the movetext
+     * 
+     * @return "1-0", "0-1", "1/2-1/2" or "*"
+     */
+    public String getResult() {
+        return result;
+    }
+
+    /**
+     * Builds the position the game starts from: the FEN tag if there is one,
+     * the standard setup otherwise
+     * 
+     * @return Start Position of the game
+     * @throws IllegalArgumentException If the FEN tag is not a valid FEN string
+     *                                  or describes a position that cannot be
+     *                                  played
+     */
+    public Position startPosition() {
+        String fen = tags.get("FEN");
+        return fen != null ? Position.fromFen(fen) : Position.startPosition();
+    }
+
+    /**
+     * Describes the game for reports, e.g. "game 12 (Carlsen - Nakamura)"
+     * 
+     * @return Game number and players
+     */
+    @Override
+    public String toString() {
+        String white = tags.getOrDefault("White", "?");
+        String black = tags.getOrDefault("Black", "?");
+        return "game " + number + " (" + white + " - " + black + ")";
+    }
+}
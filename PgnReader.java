@@ -0,0 +1,226 @@
+package ChessBoard;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Streaming reader of Portable Game Notation (PGN) files. Games are read one at
+ * a time with next(), so only the game being read is held in memory however
+ * large the file is. Comments ({...} and ; to end of line), variations, move
+ * numbers and annotation glyphs are skipped. A game ends at its result
+ * or, if the result is missing, where the tags of the next game start.
+ */
+public class PgnReader implements Closeable {
+
+    /**
+     * Size of the read buffer in chars
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Source of the PGN text
+     */
+    private final BufferedReader in;
+
+    /**
+     * Line (or rest of a line) read but belonging to the next game, or null
+     */
+    private String pending;
+
+    /**
+     * True while inside a {...} comment, which may span lines
+     */
+    private boolean inComment;
+
+    /**
+     * Nesting depth of the (...) variation being skipped, 0 in the main line
+     */
+    private int variationDepth;
+
+    /**
+     * Number of games read so far
+     */
+    private long games;
+
+    /**
+     * 1-Arg constructor for PgnReader
+     * 
+     * @param in Source of the PGN text
+     */
+    public PgnReader(Reader in) {
+        this.in = new BufferedReader(in, BUFFER_SIZE);
+    }
+
+    /**
+     * Reads the next game
+     * 
+     * @return The game, or null at the end of the input
+     * @throws IOException If the input cannot be read
+     */
+    public PgnGame next() throws IOException {
+        PgnGame game = null;
+        boolean movetext = false;
+        String line;
+        while ((line = pending != null ? pending : in.readLine()) != null) {
+            pending = null;
+            String trimmed = line.trim();
+            if (!inComment && variationDepth == 0) {
+                if (trimmed.startsWith("[")) {
+                    if (movetext) {
+                        // no result before the next game's tags
+                        pending = line;
+                        return game;
+                    }
+                    if (game == null) {
+                        game = new PgnGame(++games);
+                    }
+                    readTag(trimmed, game);
+                    continue;
+                }
+                if (trimmed.startsWith("%")) {
+                    // escaped line
+                    continue;
+                }
+            }
+
+            int n = line.length();
+            int i = 0;
+            while (i < n) {
+                char c = line.charAt(i);
+                if (inComment) {
+                    inComment = c != '}';
+                    i++;
+                    continue;
+                }
+                if (c == ';') {
+                    break;
+                }
+                if (isDelimiter(c)) {
+                    if (c == '{') {
+                        inComment = true;
+                    } else if (c == '(') {
+                        variationDepth++;
+                    } else if (c == ')' && variationDepth > 0) {
+                        variationDepth--;
+                    }
+                    i++;
+                    continue;
+                }
+                int start = i;
+                while (i < n && !isDelimiter(line.charAt(i))) {
+                    i++;
+                }
+                if (variationDepth > 0) {
+                    continue;
+                }
+                String token = line.substring(start, i);
+                if (game == null) {
+                    game = new PgnGame(++games);
+                }
+                if (isResult(token)) {
+                    game.setResult(token);
+                    String rest = line.substring(i);
+                    if (!rest.trim().isEmpty()) {
+                        pending = rest;
+                    }
+                    return game;
+                }
+                String move = stripMoveNumber(token);
+                // skip annotation glyphs and the informal "e.p." after en passant captures
+                if (!move.isEmpty() && move.charAt(0) != '$' && !move.equals("e.p.")) {
+                    game.addMove(move);
+                    movetext = true;
+                }
+            }
+        }
+        return game;
+    }
+
+    /**
+     * Returns the number of games read so far
+     * 
+     * @return Games returned by next()
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Closes the underlying input
+     * 
+     * @throws IOException If closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Reads a tag pair line such as [White "Carlsen, Magnus"] into a game;
+     * malformed lines are skipped
+     * 
+     * @param line Trimmed line starting with '['
+     * @param game Game the tag belongs to
+     */
+    private static void readTag(String line, PgnGame game) {
+        int space = line.indexOf(' ');
+        int open = line.indexOf('"');
+        int close = line.lastIndexOf('"');
+        if (space < 0 || open < 0 || close <= open) {
+            return;
+        }
+        String value = line.substring(open + 1, close).replace("\\\"", "\"").replace("\\\\", "\\");
+        game.setTag(line.substring(1, space), value);
+    }
+
+    /**
+     * Check if a character ends a movetext token
+     * 
+     * @param c Character of the movetext
+     * @return True if c is whitespace or starts or ends a comment or variation,
+     *         False otherwise
+     */
+    private static boolean isDelimiter(char c) {
+        return Character.isWhitespace(c) || c == '{' || c == '}' || c == '(' || c == ')' || c == ';';
+    }
+
+    /**
+     * Check if a movetext token is a game result
+     * 
+     * @param token Movetext token
+     * @return True if token is "1-0", "0-1", "1/2-1/2" or "*", False otherwise
+     */
+    private static boolean isResult(String token) {
+        return token.equals("1-0") || token.equals("0-1") || token.equals("1/2-1/2")
+                || token.equals(PgnGame.UNKNOWN_RESULT);
+    }
+
+    /**
+     * Removes a move number such as "12." or "12..." from the front of a token
+     * 
+     * @param token Movetext token, e.g. "12.Nf3"
+     * @return The token without its move number, possibly empty
+     */
+    private static String stripMoveNumber(String token) {
+        int i = 0;
+        while (i < token.length() && Character.isDigit(token.charAt(i))) {
+            i++;
+        }
+        int digits = i;
+        while (i < token.length() && token.charAt(i) == '.') {
+            i++;
+        }
+        if (digits > 0 && i == digits && i < token.length()) {
+            // "0-0" castling also starts with a digit, but no dot follows
+            return token;
+        }
+        return token.substring(i);
+    }
+}
@@ -0,0 +1,281 @@
+package ChessController;
+
+import ChessBoard.*;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Checks every move of every game in a PGN stream against the rules, as a
+ * three stage pipeline: the calling thread reads games with a PgnReader,
+ * worker threads replay them on a Position, and a sink thread counts the
+ * results and prints one line per invalid game. The stages are joined by
+ * bounded queues, so memory stays the same however large the input is, and a
+ * slow stage holds the faster ones back instead of letting games pile up.
+ */
+public class PgnValidator {
+
+    /**
+     * Games each queue between two stages holds at most
+     */
+    public static final int QUEUE_CAPACITY = 1024;
+
+    /**
+     * Marks the end of the games for a worker
+     */
+    private static final PgnGame END_OF_GAMES = new PgnGame(-1);
+
+    /**
+     * Marks the end of the reports of one worker for the sink
+     */
+    private static final GameReport END_OF_REPORTS = new GameReport("", 0, null);
+
+    /**
+     * Number of worker threads
+     */
+    private final int threads;
+
+    /**
+     * Destination of the error reports
+     */
+    private final PrintStream report;
+
+    /**
+     * Number of games validated, written by the sink thread
+     */
+    private long games;
+
+    /**
+     * Number of invalid games, written by the sink thread
+     */
+    private long invalidGames;
+
+    /**
+     * Number of legal moves replayed, written by the sink thread
+     */
+    private long plies;
+
+    /**
+     * 2-Arg constructor for PgnValidator
+     * 
+     * @param threads Number of worker threads
+     * @param report  Destination of the error reports
+     */
+    public PgnValidator(int threads, PrintStream report) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1: " + threads);
+        }
+        this.threads = threads;
+        this.report = report;
+    }
+
+    /**
+     * Validates every game of a PGN stream and waits until all are done
+     * 
+     * @param in Source of the PGN text; it is not closed
+     * @throws IOException          If the input cannot be read
+     * @throws InterruptedException If the calling thread is interrupted
+     */
+    public void validate(Reader in) throws IOException, InterruptedException {
+        BlockingQueue<PgnGame> gameQueue = new ArrayBlockingQueue<PgnGame>(QUEUE_CAPACITY);
+        BlockingQueue<GameReport> reportQueue = new ArrayBlockingQueue<GameReport>(QUEUE_CAPACITY);
+        games = 0;
+        invalidGames = 0;
+        plies = 0;
+
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(() -> work(gameQueue, reportQueue), "pgn-worker-" + (i + 1));
+            workers[i].start();
+        }
+        Thread sink = new Thread(() -> collect(reportQueue), "pgn-sink");
+        sink.start();
+
+        try {
+            PgnReader reader = new PgnReader(in);
+            PgnGame game;
+            while ((game = reader.next()) != null) {
+                gameQueue.put(game);
+            }
+        } finally {
+            // the workers must stop even if reading failed
+            for (int i = 0; i < threads; i++) {
+                gameQueue.put(END_OF_GAMES);
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            sink.join();
+        }
+    }
+
+    /**
+     * Worker stage: validates games until the end marker comes. Each worker
+     * owns the move buffer it replays its games with.
+     * 
+     * @param gameQueue   Games to validate
+     * @param reportQueue Reports for the sink
+     */
+    private static void work(BlockingQueue<PgnGame> gameQueue, BlockingQueue<GameReport> reportQueue) {
+        int[] moveBuffer = new int[MoveGenerator.MAX_MOVES];
+        try {
+            try {
+                PgnGame game;
+                while ((game = gameQueue.take()) != END_OF_GAMES) {
+                    reportQueue.put(check(game, moveBuffer));
+                }
+            } finally {
+                // the sink waits for the end marker of every worker, even one that failed
+                reportQueue.put(END_OF_REPORTS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Sink stage: counts and prints reports until every worker has ended
+     * 
+     * @param reportQueue Reports of the workers
+     */
+    private void collect(BlockingQueue<GameReport> reportQueue) {
+        try {
+            int ended = 0;
+            while (ended < threads) {
+                GameReport r = reportQueue.take();
+                if (r == END_OF_REPORTS) {
+                    ended++;
+                    continue;
+                }
+                games++;
+                plies += r.getPlies();
+                if (!r.isValid()) {
+                    invalidGames++;
+                    report.println(r.getGame() + ": " + r.getError());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Replays a game from its start position. A move that does not match
+     * exactly one legal move makes the game invalid, and so does a result that
+     * contradicts a checkmate or stalemate on the board at the end. A game that
+     * cannot be replayed at all is reported as invalid rather than stopping the
+     * validation.
+     * 
+     * @param game       Game to check
+     * @param moveBuffer Buffer of at least MAX_MOVES entries, used as scratch space
+     * @return Report of the game
+     */
+    public static GameReport check(PgnGame game, int[] moveBuffer) {
+        try {
+            return replay(game, moveBuffer);
+        } catch (RuntimeException e) {
+            return new GameReport(game.toString(), 0, "cannot replay game: " + e);
+        }
+    }
+
+    /**
+     * Replays a game and reports the first error found, see check(game, moveBuffer)
+     * 
+     * @param game       Game to check
+     * @param moveBuffer Buffer of at least MAX_MOVES entries, used as scratch space
+     * @return Report of the game
+     */
+    private static GameReport replay(PgnGame game, int[] moveBuffer) {
+        Position pos;
+        try {
+            pos = game.startPosition();
+        } catch (IllegalArgumentException e) {
+            return new GameReport(game.toString(), 0, "bad FEN tag: " + e.getMessage());
+        }
+        List<String> moves = game.getMoves();
+        for (int i = 0; i < moves.size(); i++) {
+            int move = San.parse(pos, moves.get(i), moveBuffer);
+            if (move == Move.NONE) {
+                String number = pos.fullmoveNumber() + (pos.sideToMove() == Position.WHITE ? ". " : "... ");
+                return new GameReport(game.toString(), i, "illegal or ambiguous move " + number + moves.get(i));
+            }
+            pos.makeMove(move);
+        }
+
+        String result = game.getResult();
+        if (MoveGenerator.generateLegal(pos, moveBuffer) == 0) {
+            String expected = !pos.inCheck(pos.sideToMove()) ? "1/2-1/2"
+                    : pos.sideToMove() == Position.WHITE ? "0-1" : "1-0";
+            if (!result.equals(expected) && !result.equals(PgnGame.UNKNOWN_RESULT)) {
+                String end = expected.equals("1/2-1/2") ? "stalemate" : "checkmate";
+                return new GameReport(game.toString(), moves.size(),
+                        "result " + result + " but the game ends in " + end + ", " + expected);
+            }
+        }
+        return new GameReport(game.toString(), moves.size(), null);
+    }
+
+    /**
+     * Returns the number of games of the last validate(in)
+     * 
+     * @return Games validated
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Returns the number of invalid games of the last validate(in)
+     * 
+     * @return Games with an error
+     */
+    public long getInvalidGames() {
+        return invalidGames;
+    }
+
+    /**
+     * Returns the number of legal moves replayed by the last validate(in)
+     * 
+     * @return Half moves replayed
+     */
+    public long getPlies() {
+        return plies;
+    }
+
+    /**
+     * Validates a PGN file and prints the invalid games and a summary.
+     * Usage: PgnValidator file [threads]
+     * 
+     * @param args Main method arguments
+     * @throws IOException          If the file cannot be read
+     * @throws InterruptedException If the main thread is interrupted
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.out.println("Usage: PgnValidator file [threads]");
+            return;
+        }
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        PgnValidator validator = new PgnValidator(threads, System.out);
+        long start = System.nanoTime();
+        // malformed bytes are replaced rather than failing the whole file
+        try (Reader in = new InputStreamReader(Files.newInputStream(Paths.get(args[0])), StandardCharsets.UTF_8)) {
+            validator.validate(in);
+        }
+        long ms = Math.max(1, (System.nanoTime() - start) / 1000000);
+        System.out.println("games " + validator.getGames() + " invalid " + validator.getInvalidGames() + " plies "
+                + validator.getPlies() + " time " + ms + " ms (" + validator.getGames() * 1000 / ms + " games/s)");
+    }
+}
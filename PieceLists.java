@@ -0,0 +1,136 @@
+package ChessBoard;
+
+import ChessPieces.*;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Per-team lists of the pieces on a 2D array chess board, with the two kings
+ * tracked directly, so finding a king or visiting a team's pieces does not scan
+ * all 64 squares. Pieces keep their identity while they move (setBoardWithMove
+ * moves the same object), so a list entry stays valid until the piece leaves
+ * the board. Captured pieces are dropped lazily the next time the list is
+ * visited; pieces created by a promotion must be added with add(...).
+ */
+public class PieceLists {
+
+    /**
+     * Most pieces a team can have on the board
+     */
+    private static final int MAX_PIECES = 16;
+
+    /**
+     * Pieces of each team, indexed by team color (ChessPiece.WHITE or
+     * ChessPiece.BLACK)
+     */
+    private final ChessPiece[][] pieces = new ChessPiece[3][MAX_PIECES];
+
+    /**
+     * Number of list entries of each team, indexed by team color
+     */
+    private final int[] counts = new int[3];
+
+    /**
+     * King of each team, indexed by team color
+     */
+    private final King[] kings = new King[3];
+
+    /**
+     * Builds the piece lists with a single scan of the board
+     * 
+     * @param chessBoard The chess board 2D array of ChessPieces
+     * @return Piece lists of both teams
+     */
+    public static PieceLists fromBoard(ChessPiece[][] chessBoard) {
+        PieceLists lists = new PieceLists();
+        for (int r = 0; r < ChessBoard.N; r++) {
+            for (int f = 0; f < ChessBoard.N; f++) {
+                if (chessBoard[r][f] != null) {
+                    lists.add(chessBoard[r][f], chessBoard);
+                }
+            }
+        }
+        return lists;
+    }
+
+    /**
+     * Adds a piece that was put on the board, e.g. the new piece of a promotion
+     * 
+     * @param p          The piece to add
+     * @param chessBoard The chess board 2D array of ChessPieces
+     */
+    public void add(ChessPiece p, ChessPiece[][] chessBoard) {
+        int team = p.getTeamColor();
+        if (counts[team] == MAX_PIECES) {
+            // a promotion whose pawn was not pruned yet; make room first
+            prune(team, chessBoard);
+        }
+        pieces[team][counts[team]++] = p;
+        if (p instanceof King) {
+            kings[team] = (King) p;
+        }
+    }
+
+    /**
+     * Returns the king of a team if it is still on the board
+     * 
+     * @param team       Color of the king's team
+     * @param chessBoard The chess board 2D array of ChessPieces
+     * @return King of team, or null if it was taken
+     */
+    public King king(int team, ChessPiece[][] chessBoard) {
+        King k = kings[team];
+        if (k != null && onBoard(k, chessBoard)) {
+            return k;
+        }
+        return null;
+    }
+
+    /**
+     * Drops the pieces of a team that are no longer on the board and returns how
+     * many are left; get(team, i) is then valid for i below that count
+     * 
+     * @param team       Color of team to visit
+     * @param chessBoard The chess board 2D array of ChessPieces
+     * @return Number of pieces of team on the board
+     */
+    public int prune(int team, ChessPiece[][] chessBoard) {
+        int n = 0;
+        ChessPiece[] list = pieces[team];
+        for (int i = 0; i < counts[team]; i++) {
+            if (onBoard(list[i], chessBoard)) {
+                list[n++] = list[i];
+            }
+        }
+        for (int i = n; i < counts[team]; i++) {
+            list[i] = null;
+        }
+        counts[team] = n;
+        return n;
+    }
+
+    /**
+     * Returns a piece of a team's list
+     * 
+     * @param team Color of team
+     * @param i    Index in the list, below the count returned by prune(...)
+     * @return The piece
+     */
+    public ChessPiece get(int team, int i) {
+        return pieces[team][i];
+    }
+
+    /**
+     * Check if a piece is still on its square of the board
+     * 
+     * @param p          The piece
+     * @param chessBoard The chess board 2D array of ChessPieces
+     * @return True if the board holds p at p's rank and file, False otherwise
+     */
+    private static boolean onBoard(ChessPiece p, ChessPiece[][] chessBoard) {
+        return chessBoard[p.getRank()][p.getFile()] == p;
+    }
+}
@@ -0,0 +1,154 @@
+package ChessBoard;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Middlegame and endgame piece values and piece-square bonuses, combined into
+ * one table per game stage indexed by piece code and square. Values are from
+ * White's point of view: Black pieces count negative, on the square mirrored
+ * across the board. Position adds and subtracts these entries as pieces are put
+ * and removed, so the material and placement score of a position is always
+ * known without scanning the board.
+ */
+public class PieceSquareTables {
+
+    /**
+     * Middlegame value of each piece type in centipawns
+     */
+    public static final int[] MG_VALUES = { 82, 337, 365, 477, 1025, 0 };
+
+    /**
+     * Endgame value of each piece type in centipawns
+     */
+    public static final int[] EG_VALUES = { 94, 281, 297, 512, 936, 0 };
+
+    /**
+     * Game phase weight of each piece type; pawns and kings do not count
+     */
+    public static final int[] PHASE_WEIGHTS = { 0, 1, 1, 2, 4, 0 };
+
+    /**
+     * Game phase of the starting position (all pieces on the board); phase 0 is a
+     * pure pawn endgame
+     */
+    public static final int MAX_PHASE = 24;
+
+    /**
+     * Middlegame value plus placement bonus, indexed by piece code and square
+     */
+    public static final int[][] MG = new int[12][64];
+
+    /**
+     * Endgame value plus placement bonus, indexed by piece code and square
+     */
+    public static final int[][] EG = new int[12][64];
+
+    // Placement bonuses for White, 8th rank first (square index order), so
+    // Black's bonus on square sq is the entry of sq ^ 56
+
+    private static final int[] PAWN_MG = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            10, 10, 20, 30, 30, 20, 10, 10,
+            5, 5, 10, 25, 25, 10, 5, 5,
+            0, 0, 0, 20, 20, 0, 0, 0,
+            5, -5, -10, 0, 0, -10, -5, 5,
+            5, 10, 10, -20, -20, 10, 10, 5,
+            0, 0, 0, 0, 0, 0, 0, 0,
+    };
+
+    private static final int[] PAWN_EG = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            80, 80, 80, 80, 80, 80, 80, 80,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            30, 30, 30, 30, 30, 30, 30, 30,
+            15, 15, 15, 15, 15, 15, 15, 15,
+            5, 5, 5, 5, 5, 5, 5, 5,
+            0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0,
+    };
+
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20, 0, 0, 0, 0, -20, -40,
+            -30, 0, 10, 15, 15, 10, 0, -30,
+            -30, 5, 15, 20, 20, 15, 5, -30,
+            -30, 0, 15, 20, 20, 15, 0, -30,
+            -30, 5, 10, 15, 15, 10, 5, -30,
+            -40, -20, 0, 5, 5, 0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50,
+    };
+
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 10, 10, 5, 0, -10,
+            -10, 5, 5, 10, 10, 5, 5, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 10, 10, 10, 10, 10, 10, -10,
+            -10, 5, 0, 0, 0, 0, 5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20,
+    };
+
+    private static final int[] ROOK = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            5, 10, 10, 10, 10, 10, 10, 5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            0, 0, 0, 5, 5, 0, 0, 0,
+    };
+
+    private static final int[] QUEEN = {
+            -20, -10, -10, -5, -5, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 5, 5, 5, 0, -10,
+            -5, 0, 5, 5, 5, 5, 0, -5,
+            0, 0, 5, 5, 5, 5, 0, -5,
+            -10, 5, 5, 5, 5, 5, 0, -10,
+            -10, 0, 5, 0, 0, 0, 0, -10,
+            -20, -10, -10, -5, -5, -10, -10, -20,
+    };
+
+    private static final int[] KING_MG = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+            20, 20, 0, 0, 0, 0, 20, 20,
+            20, 30, 10, 0, 0, 10, 30, 20,
+    };
+
+    private static final int[] KING_EG = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10, 0, 0, -10, -20, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -30, 0, 0, 0, 0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50,
+    };
+
+    static {
+        int[][] mg = { PAWN_MG, KNIGHT, BISHOP, ROOK, QUEEN, KING_MG };
+        int[][] eg = { PAWN_EG, KNIGHT, BISHOP, ROOK, QUEEN, KING_EG };
+        for (int type = Position.PAWN; type <= Position.KING; type++) {
+            int white = Position.pieceCode(Position.WHITE, type);
+            int black = Position.pieceCode(Position.BLACK, type);
+            for (int sq = 0; sq < 64; sq++) {
+                MG[white][sq] = MG_VALUES[type] + mg[type][sq];
+                EG[white][sq] = EG_VALUES[type] + eg[type][sq];
+                MG[black][sq] = -(MG_VALUES[type] + mg[type][sq ^ 56]);
+                EG[black][sq] = -(EG_VALUES[type] + eg[type][sq ^ 56]);
+            }
+        }
+    }
+}
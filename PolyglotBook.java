@@ -0,0 +1,259 @@
+package ChessEngine;
+
+import ChessBoard.*;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Opening book in the Polyglot ".bin" format. The file is memory mapped rather
+ * than read, so opening even a large book costs nothing, and a lookup only
+ * touches the few pages its binary search lands on. A book is a sequence of 16
+ * byte big-endian entries sorted by position key: the key (8 bytes, see
+ * PolyglotKeys), the move (2 bytes), its weight (2 bytes) and learning data (4
+ * bytes, ignored). A move has the to file in bits 0-2, the to row in bits 3-5,
+ * the from file in bits 6-8, the from row in bits 9-11 (rows count from the
+ * first rank) and the promotion piece type in bits 12-14; castling is written
+ * as the king taking its own rook. A book reuses its move buffers between
+ * lookups, so each thread that probes a book needs its own PolyglotBook.
+ */
+public class PolyglotBook implements Closeable {
+
+    /**
+     * Size of a book entry in bytes
+     */
+    public static final int ENTRY_SIZE = 16;
+
+    /**
+     * Channel of the book file
+     */
+    private final FileChannel channel;
+
+    /**
+     * Read-only mapping of the whole file
+     */
+    private final MappedByteBuffer entries;
+
+    /**
+     * Number of entries in the book
+     */
+    private final int size;
+
+    /**
+     * Legal moves of the position being looked up
+     */
+    private final int[] legal = new int[MoveGenerator.MAX_MOVES];
+
+    /**
+     * Book moves found by probe(...) and bestMove(...)
+     */
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+    /**
+     * Weight of each move in moves
+     */
+    private final int[] weights = new int[MoveGenerator.MAX_MOVES];
+
+    /**
+     * 1-Arg constructor for PolyglotBook; use open(path)
+     * 
+     * @param channel Open channel of the book file
+     * @throws IOException If the file is not a Polyglot book
+     */
+    private PolyglotBook(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long length = channel.size();
+        // a mapping covers at most 2 GB, far more than any real book
+        if (length % ENTRY_SIZE != 0 || length > Integer.MAX_VALUE) {
+            throw new IOException("Not a Polyglot book: " + length + " bytes");
+        }
+        entries = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        size = (int) (length / ENTRY_SIZE);
+    }
+
+    /**
+     * Opens and maps a book file
+     * 
+     * @param path Polyglot .bin file
+     * @return The open book
+     * @throws IOException If the file cannot be read or is not a Polyglot book
+     */
+    public static PolyglotBook open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new PolyglotBook(channel);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of entries
+     * 
+     * @return Entries in the book
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Picks a book move at random, each move with a chance in proportion to its
+     * weight. Moves of weight 0 are never picked, and entries that are not legal
+     * in the position (from a key collision) are skipped.
+     * 
+     * @param pos    Position to look up
+     * @param random Source of the random choice
+     * @return Packed legal move, or Move.NONE if the position is not in the book
+     */
+    public int probe(Position pos, Random random) {
+        int count = lookup(pos, moves, weights);
+        int total = 0;
+        for (int i = 0; i < count; i++) {
+            total += weights[i];
+        }
+        if (total == 0) {
+            return Move.NONE;
+        }
+        int r = random.nextInt(total);
+        for (int i = 0; i < count; i++) {
+            r -= weights[i];
+            if (r < 0) {
+                return moves[i];
+            }
+        }
+        return Move.NONE;
+    }
+
+    /**
+     * Returns the book move with the highest weight
+     * 
+     * @param pos Position to look up
+     * @return Packed legal move, or Move.NONE if the position is not in the book
+     */
+    public int bestMove(Position pos) {
+        int count = lookup(pos, moves, weights);
+        int best = Move.NONE;
+        int bestWeight = 0;
+        for (int i = 0; i < count; i++) {
+            if (weights[i] > bestWeight) {
+                best = moves[i];
+                bestWeight = weights[i];
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Finds the legal book moves of a position and their weights
+     * 
+     * @param pos     Position to look up
+     * @param moves   Filled with the packed moves
+     * @param weights Filled with the weight of each move
+     * @return Number of moves found
+     */
+    public int lookup(Position pos, int[] moves, int[] weights) {
+        long key = PolyglotKeys.key(pos);
+        int legalCount = MoveGenerator.generateLegal(pos, legal);
+        int count = 0;
+        for (int i = firstEntry(key); i < size && entries.getLong(i * ENTRY_SIZE) == key; i++) {
+            int code = entries.getShort(i * ENTRY_SIZE + 8) & 0xFFFF;
+            for (int j = 0; j < legalCount; j++) {
+                if (polyglotMove(legal[j]) == code) {
+                    if (count < moves.length) {
+                        moves[count] = legal[j];
+                        weights[count] = entries.getShort(i * ENTRY_SIZE + 10) & 0xFFFF;
+                        count++;
+                    }
+                    break;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Binary search for the first entry of a key. Keys are sorted as unsigned
+     * numbers.
+     * 
+     * @param key Polyglot key
+     * @return Index of the first entry with a key not below key; size if none
+     */
+    private int firstEntry(long key) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (Long.compareUnsigned(entries.getLong(mid * ENTRY_SIZE), key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns the Polyglot code of a move
+     * 
+     * @param move Packed move
+     * @return 16-bit Polyglot move
+     */
+    static int polyglotMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        if (Move.flag(move) == Move.CASTLE) {
+            // the king moves to its rook's square
+            to = Position.square(Position.rankOf(from), to > from ? 7 : 0);
+        }
+        return Position.fileOf(to) | (7 - Position.rankOf(to)) << 3 | Position.fileOf(from) << 6
+                | (7 - Position.rankOf(from)) << 9 | Move.promotion(move) << 12;
+    }
+
+    /**
+     * Closes the file. The mapping stays valid until it is garbage collected,
+     * since Java cannot unmap a buffer explicitly.
+     * 
+     * @throws IOException If closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Prints the book moves of a position with their weights.
+     * Usage: PolyglotBook book.bin [fen]
+     * 
+     * @param args Main method arguments
+     * @throws IOException If the book cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: PolyglotBook book.bin [fen]");
+            return;
+        }
+        Position pos = args.length > 1 ? Position.fromFen(String.join(" ", Arrays.copyOfRange(args, 1, args.length)))
+                : Position.startPosition();
+        try (PolyglotBook book = PolyglotBook.open(Paths.get(args[0]))) {
+            int[] moves = new int[MoveGenerator.MAX_MOVES];
+            int[] weights = new int[MoveGenerator.MAX_MOVES];
+            int count = book.lookup(pos, moves, weights);
+            System.out.println("key " + Long.toHexString(PolyglotKeys.key(pos)) + " entries " + book.size());
+            for (int i = 0; i < count; i++) {
+                System.out.println(Move.toString(moves[i]) + " " + weights[i]);
+            }
+        }
+    }
+}
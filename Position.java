@@ -0,0 +1,1144 @@
+package ChessBoard;
+
+import ChessPieces.*;
+import java.util.Arrays;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Bitboard representation of a chess position. Every piece type of each team
+ * is stored in a 64-bit long with one bit per square, so occupancy, attacks and
+ * piece lookups become bit operations instead of walks over ChessPiece[][].
+ * Squares use the same orientation as the 2D array board: square = r * 8 + f,
+ * so square 0 is a8 and square 63 is h1. A mailbox array of piece codes is kept
+ * alongside the bitboards for O(1) "what is on this square" lookups.
+ */
+public class Position {
+
+    /**
+     * Side index for the White team
+     */
+    public static final int WHITE = 0;
+
+    /**
+     * Side index for the Black team
+     */
+    public static final int BLACK = 1;
+
+    /**
+     * Piece type index for Pawns
+     */
+    public static final int PAWN = 0;
+
+    /**
+     * Piece type index for Knights
+     */
+    public static final int KNIGHT = 1;
+
+    /**
+     * Piece type index for Bishops
+     */
+    public static final int BISHOP = 2;
+
+    /**
+     * Piece type index for Rooks
+     */
+    public static final int ROOK = 3;
+
+    /**
+     * Piece type index for Queens
+     */
+    public static final int QUEEN = 4;
+
+    /**
+     * Piece type index for Kings
+     */
+    public static final int KING = 5;
+
+    /**
+     * Piece code of an empty square in the mailbox
+     */
+    public static final int EMPTY = -1;
+
+    /**
+     * Castling right bit for White castling King side
+     */
+    public static final int WHITE_KINGSIDE = 1;
+
+    /**
+     * Castling right bit for White castling Queen side
+     */
+    public static final int WHITE_QUEENSIDE = 2;
+
+    /**
+     * Castling right bit for Black castling King side
+     */
+    public static final int BLACK_KINGSIDE = 4;
+
+    /**
+     * Castling right bit for Black castling Queen side
+     */
+    public static final int BLACK_QUEENSIDE = 8;
+
+    /**
+     * Squares on the a-file (f == 0)
+     */
+    public static final long FILE_A = 0x0101010101010101L;
+
+    /**
+     * Squares on the b-file (f == 1)
+     */
+    public static final long FILE_B = FILE_A << 1;
+
+    /**
+     * Squares on the g-file (f == 6)
+     */
+    public static final long FILE_G = FILE_A << 6;
+
+    /**
+     * Squares on the h-file (f == 7)
+     */
+    public static final long FILE_H = FILE_A << 7;
+
+    /**
+     * Bitboards of every piece, indexed by piece code (side * 6 + type)
+     */
+    final long[] pieces = new long[12];
+
+    /**
+     * Bitboards of all squares occupied by each side
+     */
+    final long[] occupancy = new long[2];
+
+    /**
+     * Bitboard of all occupied squares
+     */
+    long occupied;
+
+    /**
+     * Mailbox of piece codes per square (EMPTY if not occupied)
+     */
+    final int[] squares = new int[64];
+
+    /**
+     * Side index of the team to move (WHITE or BLACK)
+     */
+    int sideToMove;
+
+    /**
+     * Castling rights still available, a combination of the castling right bits
+     */
+    int castling;
+
+    /**
+     * Square a pawn may capture onto en passant, or -1 if there is none
+     */
+    int epSquare = -1;
+
+    /**
+     * Number of half moves since the last capture or pawn move
+     */
+    int halfmoveClock;
+
+    /**
+     * Number of the full move, starting at 1 and incremented after Black moves
+     */
+    int fullmoveNumber = 1;
+
+    /**
+     * Zobrist key of the position, updated with XORs as pieces move
+     */
+    long key;
+
+    /**
+     * Zobrist key of the pawns alone, so pawn structure results can be cached
+     * by the pawn placement
+     */
+    long pawnKey;
+
+    /**
+     * Middlegame material and placement score from White's point of view,
+     * updated as pieces are put and removed
+     */
+    int mgScore;
+
+    /**
+     * Endgame material and placement score from White's point of view, updated
+     * as pieces are put and removed
+     */
+    int egScore;
+
+    /**
+     * Game phase from the pieces on the board, PieceSquareTables.MAX_PHASE with
+     * all pieces and 0 with only kings and pawns
+     */
+    int phase;
+
+    /**
+     * Initial capacity of the undo stack, enough for any search on top of a long
+     * game
+     */
+    private static final int UNDO_CAPACITY = 1024;
+
+    /**
+     * Castling rights kept when a piece moves from or to each square. Moving the
+     * king or a rook (or capturing a rook on its corner) is what sets hasMoved on
+     * the 2D array board, so it clears the matching rights here.
+     */
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASK, WHITE_KINGSIDE | WHITE_QUEENSIDE | BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASK[square(7, 4)] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASK[square(7, 7)] &= ~WHITE_KINGSIDE;
+        CASTLING_MASK[square(7, 0)] &= ~WHITE_QUEENSIDE;
+        CASTLING_MASK[square(0, 4)] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASK[square(0, 7)] &= ~BLACK_KINGSIDE;
+        CASTLING_MASK[square(0, 0)] &= ~BLACK_QUEENSIDE;
+    }
+
+    /**
+     * Number of moves currently on the undo stack
+     */
+    int ply;
+
+    /**
+     * Undo stack of castling rights before each move
+     */
+    int[] undoCastling = new int[UNDO_CAPACITY];
+
+    /**
+     * Undo stack of en passant squares before each move
+     */
+    int[] undoEpSquare = new int[UNDO_CAPACITY];
+
+    /**
+     * Undo stack of half move clocks before each move
+     */
+    int[] undoHalfmoveClock = new int[UNDO_CAPACITY];
+
+    /**
+     * Undo stack of Zobrist keys before each move
+     */
+    long[] undoKey = new long[UNDO_CAPACITY];
+
+    /**
+     * No-arg constructor for an empty Position with White to move
+     */
+    public Position() {
+        Arrays.fill(squares, EMPTY);
+    }
+
+    /**
+     * Returns an independent copy of this position, including the moves on the
+     * undo stack so repetitions are still detected, e.g. for a search thread that
+     * must not share the position it makes moves on
+     * 
+     * @return Copy of the position
+     */
+    public Position copy() {
+        Position pos = new Position();
+        System.arraycopy(pieces, 0, pos.pieces, 0, pieces.length);
+        System.arraycopy(occupancy, 0, pos.occupancy, 0, occupancy.length);
+        System.arraycopy(squares, 0, pos.squares, 0, squares.length);
+        pos.occupied = occupied;
+        pos.sideToMove = sideToMove;
+        pos.castling = castling;
+        pos.epSquare = epSquare;
+        pos.halfmoveClock = halfmoveClock;
+        pos.fullmoveNumber = fullmoveNumber;
+        pos.key = key;
+        pos.pawnKey = pawnKey;
+        pos.mgScore = mgScore;
+        pos.egScore = egScore;
+        pos.phase = phase;
+        pos.ply = ply;
+        pos.undoCastling = undoCastling.clone();
+        pos.undoEpSquare = undoEpSquare.clone();
+        pos.undoHalfmoveClock = undoHalfmoveClock.clone();
+        pos.undoKey = undoKey.clone();
+        return pos;
+    }
+
+    /**
+     * Builds the bitboard Position that matches a 2D array chess board. Castling
+     * rights are derived from the hasMoved flags of the kings and rooks, and the en
+     * passant square from a pawn that can currently be enpassanted.
+     * 
+     * @param chessBoard The chess board 2D array of ChessPieces
+     * @param teamToMove Color of team to move (ChessPiece.WHITE or
+     *                   ChessPiece.BLACK)
+     * @return Position with the same pieces as chessBoard
+     */
+    public static Position fromBoard(ChessPiece[][] chessBoard, int teamToMove) {
+        Position pos = new Position();
+        for (int r = 0; r < ChessBoard.N; r++) {
+            for (int f = 0; f < ChessBoard.N; f++) {
+                ChessPiece p = chessBoard[r][f];
+                if (p != null) {
+                    pos.putPiece(pieceCode(toSide(p.getTeamColor()), typeOf(p)), square(r, f));
+                }
+            }
+        }
+        pos.sideToMove = toSide(teamToMove);
+
+        // castling rights are kept as long as neither the king nor the rook moved
+        if (unmoved(chessBoard, 7, 4, King.class, ChessPiece.WHITE)) {
+            if (unmoved(chessBoard, 7, 7, Rook.class, ChessPiece.WHITE))
+                pos.castling |= WHITE_KINGSIDE;
+            if (unmoved(chessBoard, 7, 0, Rook.class, ChessPiece.WHITE))
+                pos.castling |= WHITE_QUEENSIDE;
+        }
+        if (unmoved(chessBoard, 0, 4, King.class, ChessPiece.BLACK)) {
+            if (unmoved(chessBoard, 0, 7, Rook.class, ChessPiece.BLACK))
+                pos.castling |= BLACK_KINGSIDE;
+            if (unmoved(chessBoard, 0, 0, Rook.class, ChessPiece.BLACK))
+                pos.castling |= BLACK_QUEENSIDE;
+        }
+
+        // a pawn of the team that just moved which double pushed this turn
+        int pushedRank = pos.sideToMove == WHITE ? 3 : 4;
+        for (int f = 0; f < ChessBoard.N; f++) {
+            ChessPiece p = chessBoard[pushedRank][f];
+            if (p instanceof Pawn && p.getTeamColor() != teamToMove && p.canBeEnpassanted && p.getHasMoved()) {
+                pos.setEnPassant(pos.sideToMove == WHITE ? square(2, f) : square(5, f));
+            }
+        }
+        pos.key = Zobrist.compute(pos);
+        return pos;
+    }
+
+    /**
+     * Checks that a position read from FEN can be played: the move generator and
+     * the piece lists of the game loop rely on exactly one king and at most 16
+     * pieces per side
+     * 
+     * @param fen FEN string the position was read from, for the error message
+     * @throws IllegalArgumentException If the position cannot be played
+     */
+    private void checkPlayable(String fen) {
+        for (int side = WHITE; side <= BLACK; side++) {
+            if (Long.bitCount(pieces[pieceCode(side, KING)]) != 1) {
+                throw new IllegalArgumentException("FEN needs exactly one king per side: " + fen);
+            }
+            if (Long.bitCount(occupancy(side)) > 16) {
+                throw new IllegalArgumentException("FEN has more than 16 pieces of one side: " + fen);
+            }
+        }
+        // rank index 0 is the 8th rank and rank index 7 the 1st
+        long backRanks = 0xFFL | 0xFFL << 56;
+        if (((pieces[pieceCode(WHITE, PAWN)] | pieces[pieceCode(BLACK, PAWN)]) & backRanks) != 0) {
+            throw new IllegalArgumentException("FEN has a pawn on the first or last rank: " + fen);
+        }
+        if (isAttacked(kingSquare(1 - sideToMove), sideToMove)) {
+            throw new IllegalArgumentException("FEN leaves the side that just moved in check: " + fen);
+        }
+    }
+
+    /**
+     * Drops each castling right whose king or rook is not on its home square,
+     * as makeMove would have when the piece moved away or was captured, so the
+     * move generator never castles with a piece that is not there
+     */
+    private void dropLostCastlingRights() {
+        for (int side = WHITE; side <= BLACK; side++) {
+            int home = side == WHITE ? 7 : 0;
+            if (squares[square(home, 4)] != pieceCode(side, KING)) {
+                castling &= CASTLING_MASK[square(home, 4)];
+            }
+            if (squares[square(home, 7)] != pieceCode(side, ROOK)) {
+                castling &= CASTLING_MASK[square(home, 7)];
+            }
+            if (squares[square(home, 0)] != pieceCode(side, ROOK)) {
+                castling &= CASTLING_MASK[square(home, 0)];
+            }
+        }
+    }
+
+    /**
+     * Records an en passant square while building a position, but only if a
+     * pawn of the side to move can capture there, as makeMove does, so a
+     * position has the same key however it was reached
+     * 
+     * @param sq Square the double pushed pawn skipped
+     */
+    private void setEnPassant(int sq) {
+        if ((Attacks.PAWN[1 - sideToMove][sq] & pieces[pieceCode(sideToMove, PAWN)]) != 0) {
+            epSquare = sq;
+        }
+    }
+
+    /**
+     * Builds a Position from Forsyth-Edwards Notation (FEN), e.g.
+     * "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1". The move
+     * counters may be omitted. Positions that cannot be played are refused:
+     * each side needs exactly one king and at most 16 pieces, no pawn may stand
+     * on the first or last rank, the side that just moved may not be in check,
+     * and an en passant square needs the pawn that double pushed past it.
+     * Castling rights whose king or rook is not on its home square are dropped.
+     * 
+     * @param fen FEN string of the position
+     * @return Position described by fen
+     * @throws IllegalArgumentException If fen is not a valid FEN string or
+     *                                  describes a position that cannot be played
+     */
+    public static Position fromFen(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 4) {
+            throw new IllegalArgumentException("FEN needs at least 4 fields: " + fen);
+        }
+        Position pos = new Position();
+
+        // piece placement starts on the 8th rank, which is rank index 0
+        int r = 0;
+        int f = 0;
+        for (char c : fields[0].toCharArray()) {
+            if (c == '/') {
+                if (f != 8) {
+                    throw new IllegalArgumentException("Bad FEN piece placement: " + fields[0]);
+                }
+                r++;
+                f = 0;
+            } else if (c >= '1' && c <= '8') {
+                f += c - '0';
+                if (f > 8) {
+                    throw new IllegalArgumentException("Bad FEN piece placement: " + fields[0]);
+                }
+            } else {
+                int type = "pnbrqk".indexOf(Character.toLowerCase(c));
+                if (type < 0 || r > 7 || f > 7) {
+                    throw new IllegalArgumentException("Bad FEN piece placement: " + fields[0]);
+                }
+                pos.putPiece(pieceCode(Character.isUpperCase(c) ? WHITE : BLACK, type), square(r, f));
+                f++;
+            }
+        }
+        if (r != 7 || f != 8) {
+            throw new IllegalArgumentException("Bad FEN piece placement: " + fields[0]);
+        }
+
+        if (fields[1].equals("w")) {
+            pos.sideToMove = WHITE;
+        } else if (fields[1].equals("b")) {
+            pos.sideToMove = BLACK;
+        } else {
+            throw new IllegalArgumentException("Bad FEN side to move: " + fields[1]);
+        }
+
+        for (char c : fields[2].toCharArray()) {
+            if (c == 'K') {
+                pos.castling |= WHITE_KINGSIDE;
+            } else if (c == 'Q') {
+                pos.castling |= WHITE_QUEENSIDE;
+            } else if (c == 'k') {
+                pos.castling |= BLACK_KINGSIDE;
+            } else if (c == 'q') {
+                pos.castling |= BLACK_QUEENSIDE;
+            }
+        }
+        pos.dropLostCastlingRights();
+
+        pos.checkPlayable(fen);
+
+        if (!fields[3].equals("-")) {
+            int ep = parseSquare(fields[3]);
+            // the pawn that double pushed stands one rank past the skipped square
+            int pushed = pos.sideToMove == WHITE ? ep + 8 : ep - 8;
+            if (rankOf(ep) != (pos.sideToMove == WHITE ? 2 : 5) || pos.squares[ep] != EMPTY
+                    || pos.squares[pushed] != pieceCode(1 - pos.sideToMove, PAWN)) {
+                throw new IllegalArgumentException("Bad FEN en passant square: " + fields[3]);
+            }
+            pos.setEnPassant(ep);
+        }
+        if (fields.length > 5) {
+            pos.halfmoveClock = Integer.parseInt(fields[4]);
+            pos.fullmoveNumber = Integer.parseInt(fields[5]);
+        }
+        pos.key = Zobrist.compute(pos);
+        return pos;
+    }
+
+    /**
+     * Writes the position in Forsyth-Edwards Notation (FEN), the inverse of
+     * fromFen(fen)
+     * 
+     * @return FEN string with all six fields
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder();
+        for (int r = 0; r < ChessBoard.N; r++) {
+            int empty = 0;
+            for (int f = 0; f < ChessBoard.N; f++) {
+                int piece = squares[square(r, f)];
+                if (piece == EMPTY) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                char c = "pnbrqk".charAt(pieceType(piece));
+                fen.append(sideOf(piece) == WHITE ? Character.toUpperCase(c) : c);
+            }
+            if (empty > 0) {
+                fen.append(empty);
+            }
+            if (r < ChessBoard.N - 1) {
+                fen.append('/');
+            }
+        }
+
+        fen.append(sideToMove == WHITE ? " w " : " b ");
+        if (castling == 0) {
+            fen.append('-');
+        }
+        if ((castling & WHITE_KINGSIDE) != 0) {
+            fen.append('K');
+        }
+        if ((castling & WHITE_QUEENSIDE) != 0) {
+            fen.append('Q');
+        }
+        if ((castling & BLACK_KINGSIDE) != 0) {
+            fen.append('k');
+        }
+        if ((castling & BLACK_QUEENSIDE) != 0) {
+            fen.append('q');
+        }
+        fen.append(' ').append(epSquare >= 0 ? squareName(epSquare) : "-");
+        fen.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber);
+        return fen.toString();
+    }
+
+    /**
+     * Converts a square name such as "e4" to a square index
+     * 
+     * @param name File letter followed by rank number
+     * @return Square index
+     * @throws IllegalArgumentException If name is not a square on the board
+     */
+    public static int parseSquare(String name) {
+        if (name.length() != 2) {
+            throw new IllegalArgumentException("Bad square: " + name);
+        }
+        int f = name.charAt(0) - 'a';
+        int r = 8 - (name.charAt(1) - '0');
+        if (f < 0 || f > 7 || r < 0 || r > 7) {
+            throw new IllegalArgumentException("Bad square: " + name);
+        }
+        return square(r, f);
+    }
+
+    /**
+     * Returns the name of a square such as "e4"
+     * 
+     * @param sq Square index
+     * @return File letter followed by rank number
+     */
+    public static String squareName(int sq) {
+        return "" + (char) ('a' + fileOf(sq)) + (8 - rankOf(sq));
+    }
+
+    /**
+     * Creates the Position of a new game, as set up by ChessBoard.createBoard()
+     * 
+     * @return Start Position with White to move
+     */
+    public static Position startPosition() {
+        return fromBoard(ChessBoard.createBoard(), ChessPiece.WHITE);
+    }
+
+    /**
+     * Check if the piece at (r,f) is of the given class and team and has not moved
+     * yet
+     * 
+     * @param chessBoard The chess board 2D array of ChessPieces
+     * @param r          Rank coordinate of the square
+     * @param f          File coordinate of the square
+     * @param type       Class of the piece expected on the square
+     * @param teamColor  Color of team expected on the square
+     * @return True if such an unmoved piece is on the square, False otherwise
+     */
+    private static boolean unmoved(ChessPiece[][] chessBoard, int r, int f, Class<? extends ChessPiece> type,
+            int teamColor) {
+        ChessPiece p = chessBoard[r][f];
+        return p != null && type.isInstance(p) && p.getTeamColor() == teamColor && !p.getHasMoved();
+    }
+
+    /**
+     * Returns the piece type index of a ChessPiece
+     * 
+     * @param p ChessPiece to classify
+     * @return PAWN, KNIGHT, BISHOP, ROOK, QUEEN or KING
+     */
+    public static int typeOf(ChessPiece p) {
+        if (p instanceof Pawn) {
+            return PAWN;
+        } else if (p instanceof Knight) {
+            return KNIGHT;
+        } else if (p instanceof Bishop) {
+            return BISHOP;
+        } else if (p instanceof Rook) {
+            return ROOK;
+        } else if (p instanceof Queen) {
+            return QUEEN;
+        }
+        return KING;
+    }
+
+    /**
+     * Converts a team color to a side index
+     * 
+     * @param teamColor ChessPiece.WHITE or ChessPiece.BLACK
+     * @return WHITE or BLACK side index
+     */
+    public static int toSide(int teamColor) {
+        return teamColor == ChessPiece.WHITE ? WHITE : BLACK;
+    }
+
+    /**
+     * Converts a side index to a team color
+     * 
+     * @param side WHITE or BLACK side index
+     * @return ChessPiece.WHITE or ChessPiece.BLACK
+     */
+    public static int toTeamColor(int side) {
+        return side == WHITE ? ChessPiece.WHITE : ChessPiece.BLACK;
+    }
+
+    /**
+     * Returns the square index of (r,f)
+     * 
+     * @param r Rank (row) index on the board
+     * @param f File (column) index on the board
+     * @return Square index r * 8 + f
+     */
+    public static int square(int r, int f) {
+        return (r << 3) | f;
+    }
+
+    /**
+     * Returns the rank (row) index of a square
+     * 
+     * @param sq Square index
+     * @return Rank index, 0 being the 8th rank
+     */
+    public static int rankOf(int sq) {
+        return sq >>> 3;
+    }
+
+    /**
+     * Returns the file (column) index of a square
+     * 
+     * @param sq Square index
+     * @return File index, 0 being the a-file
+     */
+    public static int fileOf(int sq) {
+        return sq & 7;
+    }
+
+    /**
+     * Returns the bitboard with only the given square set
+     * 
+     * @param sq Square index
+     * @return Single bit bitboard
+     */
+    public static long bit(int sq) {
+        return 1L << sq;
+    }
+
+    /**
+     * Returns the piece code of a piece type on a side
+     * 
+     * @param side WHITE or BLACK
+     * @param type Piece type index
+     * @return Piece code used by the mailbox and the pieces array
+     */
+    public static int pieceCode(int side, int type) {
+        return side * 6 + type;
+    }
+
+    /**
+     * Returns the side of a piece code
+     * 
+     * @param piece Piece code (not EMPTY)
+     * @return WHITE or BLACK
+     */
+    public static int sideOf(int piece) {
+        return piece < 6 ? WHITE : BLACK;
+    }
+
+    /**
+     * Returns the piece type of a piece code
+     * 
+     * @param piece Piece code (not EMPTY)
+     * @return Piece type index
+     */
+    public static int pieceType(int piece) {
+        return piece < 6 ? piece : piece - 6;
+    }
+
+    /**
+     * Places a piece on an empty square
+     * 
+     * @param piece Piece code
+     * @param sq    Square index
+     */
+    void putPiece(int piece, int sq) {
+        long b = bit(sq);
+        pieces[piece] |= b;
+        occupancy[sideOf(piece)] |= b;
+        occupied |= b;
+        squares[sq] = piece;
+        key ^= Zobrist.PIECE_SQUARE[piece][sq];
+        if (pieceType(piece) == PAWN) {
+            pawnKey ^= Zobrist.PIECE_SQUARE[piece][sq];
+        }
+        mgScore += PieceSquareTables.MG[piece][sq];
+        egScore += PieceSquareTables.EG[piece][sq];
+        phase += PieceSquareTables.PHASE_WEIGHTS[pieceType(piece)];
+    }
+
+    /**
+     * Removes the piece on an occupied square
+     * 
+     * @param sq Square index
+     * @return Piece code of the removed piece
+     */
+    int removePiece(int sq) {
+        int piece = squares[sq];
+        long b = bit(sq);
+        pieces[piece] &= ~b;
+        occupancy[sideOf(piece)] &= ~b;
+        occupied &= ~b;
+        squares[sq] = EMPTY;
+        key ^= Zobrist.PIECE_SQUARE[piece][sq];
+        if (pieceType(piece) == PAWN) {
+            pawnKey ^= Zobrist.PIECE_SQUARE[piece][sq];
+        }
+        mgScore -= PieceSquareTables.MG[piece][sq];
+        egScore -= PieceSquareTables.EG[piece][sq];
+        phase -= PieceSquareTables.PHASE_WEIGHTS[pieceType(piece)];
+        return piece;
+    }
+
+    /**
+     * Plays a pseudo-legal move generated by MoveGenerator and records what is
+     * needed to take it back (castling rights, en passant square and half move
+     * clock) on the preallocated undo stack, so trial moves create no garbage. The
+     * captured piece travels in the move itself. Must be paired with
+     * unmakeMove(move).
+     * 
+     * @param move Packed move
+     */
+    public void makeMove(int move) {
+        if (ply == undoCastling.length) {
+            growUndoStack();
+        }
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int flag = Move.flag(move);
+        int promotion = Move.promotion(move);
+        int side = sideToMove;
+
+        undoCastling[ply] = castling;
+        undoEpSquare[ply] = epSquare;
+        undoHalfmoveClock[ply] = halfmoveClock;
+        undoKey[ply] = key;
+
+        int captured = Move.captured(move);
+        if (flag == Move.EN_PASSANT) {
+            // the captured pawn is behind the en passant square
+            removePiece(side == WHITE ? to + 8 : to - 8);
+        } else if (captured != EMPTY) {
+            removePiece(to);
+        }
+
+        int piece = removePiece(from);
+        putPiece(promotion != 0 ? pieceCode(side, promotion) : piece, to);
+
+        if (flag == Move.CASTLE) {
+            // rook jumps over the king: h-file rook to f-file, a-file rook to d-file
+            if (to > from) {
+                putPiece(removePiece(from + 3), from + 1);
+            } else {
+                putPiece(removePiece(from - 4), from - 1);
+            }
+        }
+
+        if (captured != EMPTY || pieceType(piece) == PAWN) {
+            halfmoveClock = 0;
+        } else {
+            halfmoveClock++;
+        }
+
+        if (epSquare >= 0) {
+            key ^= Zobrist.EN_PASSANT_FILE[fileOf(epSquare)];
+            epSquare = -1;
+        }
+        if (flag == Move.DOUBLE_PUSH) {
+            int skipped = (from + to) >>> 1;
+            // only record en passant if an enemy pawn can actually use it
+            if ((Attacks.PAWN[side][skipped] & pieces[pieceCode(1 - side, PAWN)]) != 0) {
+                epSquare = skipped;
+                key ^= Zobrist.EN_PASSANT_FILE[fileOf(skipped)];
+            }
+        }
+
+        int rights = castling & CASTLING_MASK[from] & CASTLING_MASK[to];
+        if (rights != castling) {
+            key ^= Zobrist.CASTLING[castling] ^ Zobrist.CASTLING[rights];
+            castling = rights;
+        }
+        if (side == BLACK) {
+            fullmoveNumber++;
+        }
+        sideToMove = 1 - side;
+        key ^= Zobrist.BLACK_TO_MOVE;
+        ply++;
+    }
+
+    /**
+     * Takes back the last move played with makeMove(move), restoring the position
+     * from the undo stack
+     * 
+     * @param move Packed move that was played last
+     */
+    public void unmakeMove(int move) {
+        ply--;
+        int side = 1 - sideToMove;
+        sideToMove = side;
+        if (side == BLACK) {
+            fullmoveNumber--;
+        }
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int flag = Move.flag(move);
+
+        castling = undoCastling[ply];
+        epSquare = undoEpSquare[ply];
+        halfmoveClock = undoHalfmoveClock[ply];
+
+        int piece = removePiece(to);
+        putPiece(Move.promotion(move) != 0 ? pieceCode(side, PAWN) : piece, from);
+
+        if (flag == Move.CASTLE) {
+            if (to > from) {
+                putPiece(removePiece(from + 1), from + 3);
+            } else {
+                putPiece(removePiece(from - 1), from - 4);
+            }
+        }
+
+        int captured = Move.captured(move);
+        if (captured != EMPTY) {
+            if (flag == Move.EN_PASSANT) {
+                putPiece(captured, side == WHITE ? to + 8 : to - 8);
+            } else {
+                putPiece(captured, to);
+            }
+        }
+        // the piece moves above XOR'ed the key back; restore it exactly
+        key = undoKey[ply];
+    }
+
+    /**
+     * Passes the turn without moving a piece, for null move pruning. The en
+     * passant square is cleared and the half move clock starts over, so no
+     * repetition is found across the null move. Must be paired with
+     * unmakeNullMove().
+     */
+    public void makeNullMove() {
+        if (ply == undoCastling.length) {
+            growUndoStack();
+        }
+        undoCastling[ply] = castling;
+        undoEpSquare[ply] = epSquare;
+        undoHalfmoveClock[ply] = halfmoveClock;
+        undoKey[ply] = key;
+        if (epSquare >= 0) {
+            key ^= Zobrist.EN_PASSANT_FILE[fileOf(epSquare)];
+            epSquare = -1;
+        }
+        halfmoveClock = 0;
+        sideToMove = 1 - sideToMove;
+        key ^= Zobrist.BLACK_TO_MOVE;
+        ply++;
+    }
+
+    /**
+     * Takes back the last null move played with makeNullMove()
+     */
+    public void unmakeNullMove() {
+        ply--;
+        sideToMove = 1 - sideToMove;
+        epSquare = undoEpSquare[ply];
+        halfmoveClock = undoHalfmoveClock[ply];
+        key = undoKey[ply];
+    }
+
+    /**
+     * Doubles the capacity of the undo stack
+     */
+    private void growUndoStack() {
+        int capacity = undoCastling.length * 2;
+        undoCastling = Arrays.copyOf(undoCastling, capacity);
+        undoEpSquare = Arrays.copyOf(undoEpSquare, capacity);
+        undoHalfmoveClock = Arrays.copyOf(undoHalfmoveClock, capacity);
+        undoKey = Arrays.copyOf(undoKey, capacity);
+    }
+
+    /**
+     * Returns the piece code on a square
+     * 
+     * @param sq Square index
+     * @return Piece code, or EMPTY if not occupied
+     */
+    public int pieceAt(int sq) {
+        return squares[sq];
+    }
+
+    /**
+     * Check if spot at (r,f) is not occupied, same contract as
+     * ChessBoard.notOccupied
+     * 
+     * @param r The rank (row) index
+     * @param f The file (column) index
+     * @return True if (r,f) is off the board or not occupied, False otherwise
+     */
+    public boolean notOccupied(int r, int f) {
+        return (r > 7 || r < 0 || f < 0 || f > 7) || (occupied & bit(square(r, f))) == 0;
+    }
+
+    /**
+     * Returns the bitboard of a piece type on a side
+     * 
+     * @param side WHITE or BLACK
+     * @param type Piece type index
+     * @return Bitboard of those pieces
+     */
+    public long pieces(int side, int type) {
+        return pieces[pieceCode(side, type)];
+    }
+
+    /**
+     * Returns the bitboard of all pieces of a side
+     * 
+     * @param side WHITE or BLACK
+     * @return Bitboard of the side's pieces
+     */
+    public long occupancy(int side) {
+        return occupancy[side];
+    }
+
+    /**
+     * Returns the bitboard of all occupied squares
+     * 
+     * @return Bitboard of both sides' pieces
+     */
+    public long occupied() {
+        return occupied;
+    }
+
+    /**
+     * Returns the side to move
+     * 
+     * @return WHITE or BLACK
+     */
+    public int sideToMove() {
+        return sideToMove;
+    }
+
+    /**
+     * Returns the castling rights still available
+     * 
+     * @return Combination of the castling right bits
+     */
+    public int castlingRights() {
+        return castling;
+    }
+
+    /**
+     * Returns the en passant target square
+     * 
+     * @return Square index, or -1 if en passant is not possible
+     */
+    public int enPassantSquare() {
+        return epSquare;
+    }
+
+    /**
+     * Returns the Zobrist key identifying this position
+     * 
+     * @return 64-bit key, equal for positions with the same pieces, side to move,
+     *         castling rights and en passant square
+     */
+    public long key() {
+        return key;
+    }
+
+    /**
+     * Returns the Zobrist key of the pawn placement
+     * 
+     * @return 64-bit key, equal for positions with the same pawns
+     */
+    public long pawnKey() {
+        return pawnKey;
+    }
+
+    /**
+     * Returns the middlegame material and placement score
+     * 
+     * @return Score in centipawns from White's point of view
+     */
+    public int mgScore() {
+        return mgScore;
+    }
+
+    /**
+     * Returns the endgame material and placement score
+     * 
+     * @return Score in centipawns from White's point of view
+     */
+    public int egScore() {
+        return egScore;
+    }
+
+    /**
+     * Returns the game phase of the pieces on the board
+     * 
+     * @return Phase from 0 (kings and pawns only) up, PieceSquareTables.MAX_PHASE
+     *         or more with all pieces on the board
+     */
+    public int phase() {
+        return phase;
+    }
+
+    /**
+     * Returns the half move clock used by the fifty move rule
+     * 
+     * @return Half moves since the last capture or pawn move
+     */
+    public int halfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * Returns the full move number
+     * 
+     * @return Full move number, starting at 1
+     */
+    public int fullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * Returns the square of a side's king
+     * 
+     * @param side WHITE or BLACK
+     * @return Square index of the king, or 64 if the side has no king
+     */
+    public int kingSquare(int side) {
+        return Long.numberOfTrailingZeros(pieces[pieceCode(side, KING)]);
+    }
+
+    /**
+     * Check if a square is attacked by any piece of a side
+     * 
+     * @param sq     Square index being examined
+     * @param bySide Side of the attacking pieces
+     * @return True if a piece of bySide attacks sq, False otherwise
+     */
+    public boolean isAttacked(int sq, int bySide) {
+        return isAttacked(sq, bySide, occupied, 0);
+    }
+
+    /**
+     * Check if a square is attacked by a side on a hypothetical occupancy, used to
+     * test a move before playing it
+     * 
+     * @param sq      Square index being examined
+     * @param bySide  Side of the attacking pieces
+     * @param occ     Bitboard of occupied squares that block sliding pieces
+     * @param removed Bitboard of squares whose pieces no longer attack (captured)
+     * @return True if a piece of bySide attacks sq, False otherwise
+     */
+    public boolean isAttacked(int sq, int bySide, long occ, long removed) {
+        int base = bySide * 6;
+        long alive = ~removed;
+        if ((Attacks.PAWN[1 - bySide][sq] & pieces[base + PAWN] & alive) != 0)
+            return true;
+        if ((Attacks.KNIGHT[sq] & pieces[base + KNIGHT] & alive) != 0)
+            return true;
+        if ((Attacks.KING[sq] & pieces[base + KING] & alive) != 0)
+            return true;
+        long queens = pieces[base + QUEEN];
+        if ((Attacks.bishop(sq, occ) & (pieces[base + BISHOP] | queens) & alive) != 0)
+            return true;
+        return (Attacks.rook(sq, occ) & (pieces[base + ROOK] | queens) & alive) != 0;
+    }
+
+    /**
+     * Returns every piece of both sides that attacks a square on a given
+     * occupancy. Sliders are looked up through occ, so removing a piece from occ
+     * reveals the x-ray attackers behind it.
+     * 
+     * @param sq  Square index being examined
+     * @param occ Bitboard of occupied squares that block sliding pieces
+     * @return Bitboard of the attacking pieces (may include pieces not in occ)
+     */
+    public long attackersTo(int sq, long occ) {
+        long queens = pieces[QUEEN] | pieces[6 + QUEEN];
+        long diagonal = pieces[BISHOP] | pieces[6 + BISHOP] | queens;
+        long straight = pieces[ROOK] | pieces[6 + ROOK] | queens;
+        return (Attacks.PAWN[BLACK][sq] & pieces[PAWN])
+                | (Attacks.PAWN[WHITE][sq] & pieces[6 + PAWN])
+                | (Attacks.KNIGHT[sq] & (pieces[KNIGHT] | pieces[6 + KNIGHT]))
+                | (Attacks.KING[sq] & (pieces[KING] | pieces[6 + KING]))
+                | (Attacks.bishop(sq, occ) & diagonal)
+                | (Attacks.rook(sq, occ) & straight);
+    }
+
+    /**
+     * Check if a side has a piece other than pawns and its king. Without one,
+     * zugzwang is common and passing the turn is no safe guess.
+     * 
+     * @param side WHITE or BLACK
+     * @return True if the side has a knight, bishop, rook or queen, False
+     *         otherwise
+     */
+    public boolean hasNonPawnMaterial(int side) {
+        return (occupancy[side] & ~pieces[pieceCode(side, PAWN)] & ~pieces[pieceCode(side, KING)]) != 0;
+    }
+
+    /**
+     * Check if a side's king is attacked
+     * 
+     * @param side WHITE or BLACK
+     * @return True if the side's king is in check, False otherwise
+     */
+    public boolean inCheck(int side) {
+        long k = pieces[pieceCode(side, KING)];
+        return k != 0 && isAttacked(Long.numberOfTrailingZeros(k), 1 - side);
+    }
+
+    /**
+     * Check if the current position already occurred since the last capture or
+     * pawn move, looking back through the keys on the undo stack
+     * 
+     * @return True if the position is a repetition, False otherwise
+     */
+    public boolean isRepetition() {
+        int oldest = Math.max(0, ply - halfmoveClock);
+        // the same side is to move only every second ply
+        for (int i = ply - 4; i >= oldest; i -= 2) {
+            if (undoKey[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,6 +1,7 @@
 package ChessPieces;
 
 import ChessBoard.ChessBoard;
+import ChessBoard.GameState;
 
 /**
  * @author Michael Mogilevsky (mm3201)
@@ -34,7 +35,7 @@ public class Queen extends ChessPiece {
      * west = 8
      */
     @Override
-    public boolean canMove(int newR, int newF, ChessPiece[][] chessBoard) {
+    public boolean canMove(int newR, int newF, ChessPiece[][] chessBoard, GameState state) {
         int rp = this.r;
         int fp = this.f;
 
@@ -1,6 +1,7 @@
 package ChessPieces;
 
 import ChessBoard.ChessBoard;
+import ChessBoard.GameState;
 
 /**
  * @author Michael Mogilevsky (mm3201)
@@ -28,7 +29,7 @@ public class Rook extends ChessPiece {
     // 4 = west
 
     @Override
-    public boolean canMove(int newR, int newF, ChessPiece[][] chessBoard) {
+    public boolean canMove(int newR, int newF, ChessPiece[][] chessBoard, GameState state) {
         int rp = this.r;
         int fp = this.f;
 
@@ -0,0 +1,109 @@
+package ChessBoard;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Reads moves in Standard Algebraic Notation (SAN), e.g. "e4", "Nbd7", "exd6",
+ * "R1e2", "e8=Q+" or "O-O-O", as used in PGN files. A SAN move only makes sense
+ * in its position, so it is matched against the legal moves generated there.
+ */
+public class San {
+
+    /**
+     * Letters of the piece types in SAN, indexed by piece type; pawns have none
+     */
+    private static final String PIECE_LETTERS = " NBRQK";
+
+    /**
+     * SAN moves are only read through the static methods
+     */
+    private San() {
+    }
+
+    /**
+     * Finds the legal move a SAN string stands for. Check and mate signs and
+     * annotations such as "!?" are ignored, castling may be written with zeros,
+     * and the "=" of a promotion may be left out.
+     * 
+     * @param pos   Position the move is played in
+     * @param san   Move in SAN
+     * @param moves Buffer of at least MAX_MOVES entries, used as scratch space
+     * @return Packed move, or Move.NONE if no legal move or more than one matches
+     */
+    public static int parse(Position pos, String san, int[] moves) {
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        String s = san.substring(0, end).replace('0', 'O');
+
+        int count = MoveGenerator.generateLegal(pos, moves);
+        if (s.equals("O-O") || s.equals("O-O-O")) {
+            boolean kingside = s.length() == 3;
+            for (int i = 0; i < count; i++) {
+                int m = moves[i];
+                if (Move.flag(m) == Move.CASTLE && (Move.to(m) > Move.from(m)) == kingside) {
+                    return m;
+                }
+            }
+            return Move.NONE;
+        }
+
+        int promotion = 0;
+        if (s.length() > 2 && PIECE_LETTERS.indexOf(s.charAt(s.length() - 1)) > 0) {
+            promotion = PIECE_LETTERS.indexOf(s.charAt(s.length() - 1));
+            s = s.substring(0, s.charAt(s.length() - 2) == '=' ? s.length() - 2 : s.length() - 1);
+        }
+        if (s.length() < 2) {
+            return Move.NONE;
+        }
+        int type = Position.PAWN;
+        int start = 0;
+        if (PIECE_LETTERS.indexOf(s.charAt(0)) > 0) {
+            type = PIECE_LETTERS.indexOf(s.charAt(0));
+            start = 1;
+        }
+        int to;
+        try {
+            to = Position.parseSquare(s.substring(s.length() - 2));
+        } catch (IllegalArgumentException e) {
+            return Move.NONE;
+        }
+
+        // whatever is left between piece and target square says which piece moves
+        int fromFile = -1;
+        int fromRank = -1;
+        for (int i = start; i < s.length() - 2; i++) {
+            char c = s.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromFile = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRank = 8 - (c - '0');
+            } else if (c != 'x' && c != '-' && c != ':') {
+                return Move.NONE;
+            }
+        }
+
+        int found = Move.NONE;
+        for (int i = 0; i < count; i++) {
+            int m = moves[i];
+            if (Move.to(m) != to || Position.pieceType(Move.piece(m)) != type || Move.promotion(m) != promotion
+                    || Move.flag(m) == Move.CASTLE) {
+                continue;
+            }
+            if ((fromFile >= 0 && Position.fileOf(Move.from(m)) != fromFile)
+                    || (fromRank >= 0 && Position.rankOf(Move.from(m)) != fromRank)) {
+                continue;
+            }
+            if (found != Move.NONE) {
+                // ambiguous
+                return Move.NONE;
+            }
+            found = m;
+        }
+        return found;
+    }
+}
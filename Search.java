@@ -0,0 +1,698 @@
+package ChessEngine;
+
+import ChessBoard.*;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Negamax alpha-beta search with iterative deepening on a bitboard Position.
+ * Each iteration searches one half move deeper and starts with the principal
+ * variation of the previous one, so the deeper iteration cuts off faster and a
+ * usable best move is always available from the last completed iteration.
+ * Results are kept in a TranspositionTable, so positions reached again through
+ * another move order are not searched again. Null move pruning, late move
+ * reductions, principal variation search, aspiration windows and check
+ * extensions spend the nodes where they matter; each can be switched off with
+ * SearchOptions.
+ */
+public class Search {
+
+    /**
+     * Score bound larger than any reachable score
+     */
+    public static final int INFINITY = 32000;
+
+    /**
+     * Score of being checkmated at the root; mate in n plies scores MATE - n
+     */
+    public static final int MATE = 31000;
+
+    /**
+     * Deepest ply the search can reach
+     */
+    public static final int MAX_PLY = 128;
+
+    /**
+     * Default transposition table size in MB
+     */
+    public static final int DEFAULT_HASH_MB = 16;
+
+    /**
+     * Position being searched; moves are made and unmade on it in place
+     */
+    private final Position pos;
+
+    /**
+     * Transposition table, possibly shared with other searches
+     */
+    private final TranspositionTable tt;
+
+    /**
+     * Margin added to the value of a capture before it is skipped by delta
+     * pruning, for the positional gain the material count does not see
+     */
+    private static final int DELTA_MARGIN = 200;
+
+    /**
+     * History score above which all history scores are halved, so old cutoffs
+     * fade and scores cannot overflow
+     */
+    private static final int HISTORY_LIMIT = 1 << 20;
+
+    /**
+     * Nodes between two checks of the node and time limits, minus one
+     */
+    private static final int CHECK_INTERVAL = 2047;
+
+    /**
+     * Shallowest depth at which a null move is tried
+     */
+    private static final int NULL_MOVE_MIN_DEPTH = 3;
+
+    /**
+     * Depth a null move search is reduced by, on top of the move itself; deeper
+     * searches are reduced by one more every NULL_MOVE_DEPTH_DIVISOR half moves
+     */
+    private static final int NULL_MOVE_REDUCTION = 2;
+
+    /**
+     * Remaining depth per extra half move of null move reduction
+     */
+    private static final int NULL_MOVE_DEPTH_DIVISOR = 6;
+
+    /**
+     * Shallowest depth at which late moves are reduced
+     */
+    private static final int LMR_MIN_DEPTH = 3;
+
+    /**
+     * Number of moves searched at full depth before reductions start
+     */
+    private static final int LMR_FULL_DEPTH_MOVES = 3;
+
+    /**
+     * Late move reduction by remaining depth and move number, growing with the
+     * logarithm of both
+     */
+    private static final int[][] LMR_TABLE = new int[64][64];
+
+    /**
+     * Shallowest iteration that starts with an aspiration window
+     */
+    private static final int ASPIRATION_MIN_DEPTH = 4;
+
+    /**
+     * Half width of the first aspiration window in centipawns; it doubles on
+     * every fail
+     */
+    private static final int ASPIRATION_WINDOW = 25;
+
+    static {
+        for (int depth = 1; depth < 64; depth++) {
+            for (int moves = 1; moves < 64; moves++) {
+                LMR_TABLE[depth][moves] = (int) (0.75 + Math.log(depth) * Math.log(moves) / 2.25);
+            }
+        }
+    }
+
+    /**
+     * Selective search features in use
+     */
+    private SearchOptions options = new SearchOptions();
+
+    /**
+     * Pawn structure cache of this search thread
+     */
+    private final PawnCache pawnCache = new PawnCache();
+
+    /**
+     * Move pickers reused at every ply, so searching allocates nothing
+     */
+    private final MovePicker[] pickers = new MovePicker[MAX_PLY];
+
+    /**
+     * Two quiet moves per ply that caused a beta cutoff most recently
+     */
+    private final int[][] killers = new int[MAX_PLY][2];
+
+    /**
+     * How often quiet moves caused beta cutoffs, weighted by depth, indexed by
+     * piece code and end square
+     */
+    private final int[][] history = new int[12][64];
+
+    /**
+     * Triangular principal variation table: pvTable[ply] holds the best line
+     * found from ply onwards
+     */
+    private final int[][] pvTable = new int[MAX_PLY + 1][MAX_PLY + 1];
+
+    /**
+     * Length of the line stored in each row of pvTable
+     */
+    private final int[] pvLength = new int[MAX_PLY + 1];
+
+    /**
+     * Principal variation of the previous iteration, searched first
+     */
+    private int[] prevPv = new int[0];
+
+    /**
+     * Nodes visited since the search started, counted by the searching thread
+     */
+    private long nodes;
+
+    /**
+     * Copy of nodes for other threads, published every CHECK_INTERVAL + 1 nodes
+     * and when the search ends
+     */
+    private volatile long publishedNodes;
+
+    /**
+     * Helper searches whose nodes count against this search's node budget
+     */
+    private Search[] helpers = new Search[0];
+
+    /**
+     * Node budget of the running search
+     */
+    private long nodeLimit = Long.MAX_VALUE;
+
+    /**
+     * Deadlines of the running search
+     */
+    private TimeManager timeManager;
+
+    /**
+     * Called with the result of each completed iteration, or null
+     */
+    private Consumer<SearchResult> iterationListener;
+
+    /**
+     * Set by stop() from another thread; the running iteration is abandoned and
+     * the last completed one is returned
+     */
+    private volatile boolean stopped;
+
+    /**
+     * 1-Arg constructor for Search with its own transposition table of
+     * DEFAULT_HASH_MB
+     * 
+     * @param pos Position to search; it is restored when the search returns
+     */
+    public Search(Position pos) {
+        this(pos, new TranspositionTable(DEFAULT_HASH_MB));
+    }
+
+    /**
+     * 2-Arg constructor for Search
+     * 
+     * @param pos Position to search; it is restored when the search returns
+     * @param tt  Transposition table to read and fill
+     */
+    public Search(Position pos, TranspositionTable tt) {
+        this.pos = pos;
+        this.tt = tt;
+        for (int i = 0; i < MAX_PLY; i++) {
+            pickers[i] = new MovePicker();
+        }
+    }
+
+    /**
+     * Sets the selective search features to use from the next search on
+     * 
+     * @param options Features to switch on or off
+     */
+    public void setOptions(SearchOptions options) {
+        this.options = options;
+    }
+
+    /**
+     * Sets a listener that is called on the searching thread with the result of
+     * every completed iteration, e.g. to report progress during a long search
+     * 
+     * @param listener Receiver of the iteration results, or null for none
+     */
+    public void setIterationListener(Consumer<SearchResult> listener) {
+        this.iterationListener = listener;
+    }
+
+    /**
+     * Searches with iterative deepening up to maxDepth
+     * 
+     * @param maxDepth Deepest iteration in half moves
+     * @return Result of the deepest completed iteration
+     */
+    public SearchResult search(int maxDepth) {
+        return search(new SearchLimits().setDepth(maxDepth));
+    }
+
+    /**
+     * Searches with iterative deepening until a limit is reached or stop() is
+     * called
+     * 
+     * @param limits Depth, node and time limits of the search
+     * @return Result of the deepest completed iteration
+     */
+    public SearchResult search(SearchLimits limits) {
+        stopped = false;
+        tt.newSearch();
+        return run(limits, 1);
+    }
+
+    /**
+     * Searches with iterative deepening from startDepth, without starting a new
+     * transposition table generation; also used by the helper threads of a
+     * ParallelSearch
+     * 
+     * @param limits     Depth, node and time limits of the search
+     * @param startDepth First iteration in half moves
+     * @return Result of the deepest completed iteration
+     */
+    SearchResult run(SearchLimits limits, int startDepth) {
+        nodes = 0;
+        publishedNodes = 0;
+        nodeLimit = limits.getNodes();
+        timeManager = new TimeManager(limits, pos.sideToMove());
+        prevPv = new int[0];
+        for (int[] k : killers) {
+            Arrays.fill(k, Move.NONE);
+        }
+        for (int[] h : history) {
+            Arrays.fill(h, 0);
+        }
+        SearchResult result = new SearchResult(Move.NONE, 0, 0, prevPv, 0);
+        for (int depth = startDepth; depth <= Math.min(limits.getDepth(), MAX_PLY); depth++) {
+            int score = searchRoot(depth, result.getScore());
+            if (stopped) {
+                break;
+            }
+            prevPv = Arrays.copyOf(pvTable[0], pvLength[0]);
+            int best = prevPv.length > 0 ? prevPv[0] : Move.NONE;
+            result = new SearchResult(best, score, depth, prevPv, nodes);
+            if (iterationListener != null) {
+                iterationListener.accept(result);
+            }
+            if (!limits.isInfinite() && (best == Move.NONE || isMateScore(score))) {
+                // no legal move, or a forced mate was found; deeper is not better
+                break;
+            }
+            if (timeManager.stopIterating()) {
+                break;
+            }
+        }
+        if (result.getBestMove() == Move.NONE) {
+            // stopped before the first iteration finished; any legal move beats none
+            int[] legal = new int[MoveGenerator.MAX_MOVES];
+            if (MoveGenerator.generateLegal(pos, legal) > 0) {
+                result = new SearchResult(legal[0], 0, 0, new int[] { legal[0] }, nodes);
+            }
+        }
+        publishedNodes = nodes;
+        return result;
+    }
+
+    /**
+     * Searches the root to one depth. With aspiration windows the search starts
+     * with a narrow window around the previous iteration's score, which cuts off
+     * more; a score outside the window is searched again with the window widened
+     * on that side.
+     * 
+     * @param depth     Depth of the iteration in half moves
+     * @param lastScore Score of the previous iteration
+     * @return Exact score of the root, or 0 if the search was stopped
+     */
+    private int searchRoot(int depth, int lastScore) {
+        if (!options.isAspirationWindows() || depth < ASPIRATION_MIN_DEPTH || isMateScore(lastScore)) {
+            return negamax(depth, -INFINITY, INFINITY, 0, true);
+        }
+        int delta = ASPIRATION_WINDOW;
+        int alpha = Math.max(lastScore - delta, -INFINITY);
+        int beta = Math.min(lastScore + delta, INFINITY);
+        while (true) {
+            int score = negamax(depth, alpha, beta, 0, true);
+            if (stopped) {
+                return 0;
+            }
+            delta *= 2;
+            if (score <= alpha) {
+                alpha = Math.max(score - delta, -INFINITY);
+            } else if (score >= beta) {
+                beta = Math.min(score + delta, INFINITY);
+            } else {
+                return score;
+            }
+        }
+    }
+
+    /**
+     * Stops a search running on another thread
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Sets the helper searches of a ParallelSearch, whose nodes count against the
+     * node budget of this search
+     * 
+     * @param helpers Searches running on the helper threads
+     */
+    void setHelpers(Search[] helpers) {
+        this.helpers = helpers;
+    }
+
+    /**
+     * Publishes the node count and stops the search if the node budget of all
+     * threads is used up or the hard deadline passed
+     */
+    private void checkLimits() {
+        publishedNodes = nodes;
+        long total = nodes;
+        for (Search helper : helpers) {
+            total += helper.publishedNodes;
+        }
+        if (total >= nodeLimit || timeManager.outOfTime()) {
+            stopped = true;
+        }
+    }
+
+    /**
+     * Returns the nodes visited by the current or last search. Another thread
+     * may call this while the search runs and then sees a count at most
+     * CHECK_INTERVAL + 1 nodes behind.
+     * 
+     * @return Nodes visited
+     */
+    public long getNodes() {
+        return publishedNodes;
+    }
+
+    /**
+     * Check if a score means a forced checkmate for either side
+     * 
+     * @param score Search score
+     * @return True if the score is a mate score, False otherwise
+     */
+    public static boolean isMateScore(int score) {
+        return Math.abs(score) >= MATE - MAX_PLY;
+    }
+
+    /**
+     * Negamax alpha-beta search of the position
+     * 
+     * @param depth Remaining depth in half moves
+     * @param alpha Lower bound of the score window
+     * @param beta  Upper bound of the score window
+     * @param ply   Distance from the root in half moves
+     * @param allowNull False right after a null move, so two are never played in
+     *                  a row
+     * @return Score from the side to move's point of view
+     */
+    private int negamax(int depth, int alpha, int beta, int ply, boolean allowNull) {
+        pvLength[ply] = ply;
+        nodes++;
+        if ((nodes & CHECK_INTERVAL) == 0) {
+            checkLimits();
+        }
+        if (ply > 0 && (pos.halfmoveClock() >= 100 || pos.isRepetition())) {
+            return 0;
+        }
+        int side = pos.sideToMove();
+        boolean inCheck = pos.inCheck(side);
+        if (inCheck && options.isCheckExtensions()) {
+            // a check is rarely quiet; settle it before the horizon
+            depth++;
+        }
+        if (depth <= 0 || ply == MAX_PLY) {
+            return quiescence(alpha, beta, ply);
+        }
+
+        long entry = tt.probe(pos.key());
+        int ttMove = TranspositionTable.move(entry);
+        if (ply > 0 && TranspositionTable.bound(entry) != TranspositionTable.NONE
+                && TranspositionTable.depth(entry) >= depth) {
+            int ttScore = TranspositionTable.score(entry, ply);
+            int bound = TranspositionTable.bound(entry);
+            if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER && ttScore >= beta)
+                    || (bound == TranspositionTable.UPPER && ttScore <= alpha)) {
+                return ttScore;
+            }
+        }
+
+        if (options.isNullMovePruning() && allowNull && ply > 0 && !inCheck && depth >= NULL_MOVE_MIN_DEPTH
+                && !isMateScore(beta) && pos.hasNonPawnMaterial(side)
+                && Evaluation.evaluate(pos, pawnCache) >= beta) {
+            // if passing still fails high, a real move almost surely would too
+            int reduction = NULL_MOVE_REDUCTION + depth / NULL_MOVE_DEPTH_DIVISOR;
+            pos.makeNullMove();
+            int score = -negamax(depth - 1 - reduction, -beta, -beta + 1, ply + 1, false);
+            pos.unmakeNullMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score >= beta) {
+                // a mate found after passing is not proven
+                return isMateScore(score) ? beta : score;
+            }
+        }
+
+        if (ttMove == Move.NONE && ply < prevPv.length) {
+            ttMove = prevPv[ply];
+        }
+        MovePicker picker = pickers[ply];
+        picker.init(pos, ttMove, killers[ply][0], killers[ply][1], history, false);
+
+        boolean pvNode = beta - alpha > 1;
+        int alphaOrig = alpha;
+        int bestMove = Move.NONE;
+        int legal = 0;
+        for (int move = picker.next(); move != Move.NONE; move = picker.next()) {
+            if (!MoveGenerator.isLegal(pos, move)) {
+                continue;
+            }
+            legal++;
+            pos.makeMove(move);
+            int score;
+            if (legal == 1) {
+                score = -negamax(depth - 1, -beta, -alpha, ply + 1, true);
+            } else {
+                int reduction = reduction(depth, legal, move, ply, inCheck, pvNode);
+                // assume the move beats alpha until a search says otherwise
+                score = alpha + 1;
+                if (reduction > 0) {
+                    // a reduced move that beats alpha is searched again at full depth
+                    score = -negamax(depth - 1 - reduction, -alpha - 1, -alpha, ply + 1, true);
+                }
+                boolean pvs = options.isPrincipalVariationSearch();
+                if (score > alpha && pvs) {
+                    // only prove the move is no better than the first one
+                    score = -negamax(depth - 1, -alpha - 1, -alpha, ply + 1, true);
+                }
+                if (score > alpha && (score < beta || !pvs)) {
+                    score = -negamax(depth - 1, -beta, -alpha, ply + 1, true);
+                }
+            }
+            pos.unmakeMove(move);
+            if (stopped) {
+                // the score of an abandoned subtree must not be used or stored
+                return 0;
+            }
+            if (score > alpha) {
+                alpha = score;
+                bestMove = move;
+                updatePv(ply, move);
+                if (alpha >= beta) {
+                    if (!MovePicker.isNoisy(move)) {
+                        updateQuietStats(ply, move, depth);
+                    }
+                    break;
+                }
+            }
+        }
+        if (legal == 0) {
+            // checkmate (prefer the shortest) or stalemate
+            return inCheck ? -MATE + ply : 0;
+        }
+        int bound = alpha >= beta ? TranspositionTable.LOWER
+                : alpha > alphaOrig ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        tt.store(pos.key(), bestMove, alpha, depth, bound, ply);
+        return alpha;
+    }
+
+    /**
+     * Depth to take off a late move, which is most likely bad when move ordering
+     * works. Captures, promotions, killers, checks and evasions are not reduced,
+     * and moves of the principal variation are reduced less.
+     * 
+     * @param depth   Remaining depth in half moves
+     * @param legal   Number of the move among the legal moves, from 1
+     * @param move    Move just played
+     * @param ply     Distance from the root of the position before the move
+     * @param inCheck True if the move is an evasion
+     * @param pvNode  True if the position is on the principal variation
+     * @return Reduction in half moves, at most depth - 2
+     */
+    private int reduction(int depth, int legal, int move, int ply, boolean inCheck, boolean pvNode) {
+        if (!options.isLateMoveReductions() || depth < LMR_MIN_DEPTH || legal <= LMR_FULL_DEPTH_MOVES || inCheck
+                || MovePicker.isNoisy(move) || move == killers[ply][0] || move == killers[ply][1]
+                || pos.inCheck(pos.sideToMove())) {
+            return 0;
+        }
+        int r = LMR_TABLE[Math.min(depth, 63)][Math.min(legal, 63)];
+        if (pvNode) {
+            r--;
+        }
+        return Math.max(0, Math.min(r, depth - 2));
+    }
+
+    /**
+     * Quiescence search at the leaves: only captures and promotions are searched
+     * until the position is quiet, so the static evaluation is never taken in the
+     * middle of an exchange. The side to move may stand pat on the evaluation
+     * instead of capturing, captures that lose material by static exchange
+     * evaluation are not tried, and captures that cannot bring the score back up
+     * to alpha are skipped (delta pruning). In check every evasion is searched.
+     * 
+     * @param alpha Lower bound of the score window
+     * @param beta  Upper bound of the score window
+     * @param ply   Distance from the root in half moves
+     * @return Score from the side to move's point of view
+     */
+    private int quiescence(int alpha, int beta, int ply) {
+        pvLength[ply] = ply;
+        nodes++;
+        if ((nodes & CHECK_INTERVAL) == 0) {
+            checkLimits();
+        }
+        if (ply == MAX_PLY) {
+            return Evaluation.evaluate(pos, pawnCache);
+        }
+        boolean inCheck = pos.inCheck(pos.sideToMove());
+        int standPat = -INFINITY;
+        if (!inCheck) {
+            standPat = Evaluation.evaluate(pos, pawnCache);
+            if (standPat >= beta) {
+                return standPat;
+            }
+            if (standPat > alpha) {
+                alpha = standPat;
+            }
+        }
+
+        MovePicker picker = pickers[ply];
+        picker.init(pos, Move.NONE, Move.NONE, Move.NONE, history, !inCheck);
+        int legal = 0;
+        for (int move = picker.next(); move != Move.NONE; move = picker.next()) {
+            if (!inCheck && standPat + gain(move) + DELTA_MARGIN <= alpha) {
+                continue;
+            }
+            if (!MoveGenerator.isLegal(pos, move)) {
+                continue;
+            }
+            legal++;
+            pos.makeMove(move);
+            int score = -quiescence(-beta, -alpha, ply + 1);
+            pos.unmakeMove(move);
+            if (stopped) {
+                return 0;
+            }
+            if (score > alpha) {
+                alpha = score;
+                updatePv(ply, move);
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+        }
+        if (inCheck && legal == 0) {
+            return -MATE + ply;
+        }
+        return alpha;
+    }
+
+    /**
+     * Material a capture or promotion wins at most
+     * 
+     * @param move Packed move
+     * @return Value of the captured piece plus the promotion gain, in centipawns
+     */
+    private static int gain(int move) {
+        int gain = 0;
+        if (Move.captured(move) != Position.EMPTY) {
+            gain += Evaluation.PIECE_VALUES[Position.pieceType(Move.captured(move))];
+        }
+        if (Move.promotion(move) != 0) {
+            gain += Evaluation.PIECE_VALUES[Move.promotion(move)] - Evaluation.PIECE_VALUES[Position.PAWN];
+        }
+        return gain;
+    }
+
+    /**
+     * Records a quiet move that caused a beta cutoff as a killer of its ply and
+     * raises its history score
+     * 
+     * @param ply   Distance from the root
+     * @param move  Quiet move that caused the cutoff
+     * @param depth Remaining depth of the cutoff; deeper cutoffs count more
+     */
+    private void updateQuietStats(int ply, int move, int depth) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] scores = history[Move.piece(move)];
+        scores[Move.to(move)] += depth * depth;
+        if (scores[Move.to(move)] > HISTORY_LIMIT) {
+            for (int[] h : history) {
+                for (int sq = 0; sq < h.length; sq++) {
+                    h[sq] /= 2;
+                }
+            }
+        }
+    }
+
+    /**
+     * Records a new best move at ply, followed by the best line below it
+     * 
+     * @param ply  Distance from the root
+     * @param move New best move at ply
+     */
+    private void updatePv(int ply, int move) {
+        pvTable[ply][ply] = move;
+        for (int i = ply + 1; i < pvLength[ply + 1]; i++) {
+            pvTable[ply][i] = pvTable[ply + 1][i];
+        }
+        pvLength[ply] = pvLength[ply + 1];
+    }
+
+    /**
+     * Searches a position and prints the best move and principal variation.
+     * Usage: Search depth [fen]
+     * 
+     * @param args Main method arguments
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        Position pos = Position.startPosition();
+        if (args.length > 1) {
+            StringBuilder fen = new StringBuilder(args[1]);
+            for (int i = 2; i < args.length; i++) {
+                fen.append(' ').append(args[i]);
+            }
+            pos = Position.fromFen(fen.toString());
+        }
+        long start = System.nanoTime();
+        SearchResult r = new Search(pos).search(depth);
+        long ms = (System.nanoTime() - start) / 1000000;
+        System.out.println("depth " + r.getDepth() + " score " + r.getScore() + " nodes " + r.getNodes() + " time "
+                + ms + " ms");
+        System.out.println("bestmove " + Move.toString(r.getBestMove()) + " pv " + r.pvString());
+    }
+}
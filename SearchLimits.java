@@ -0,0 +1,186 @@
+package ChessEngine;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Limits of one search: depth, nodes, a fixed time per move or the players'
+ * clocks, or no limit at all until Search.stop() is called. Unset limits do not
+ * constrain the search. Setters return this so limits can be chained, e.g.
+ * new SearchLimits().setMoveTime(500).setDepth(12).
+ */
+public class SearchLimits {
+
+    /**
+     * Deepest iteration in half moves
+     */
+    private int depth = Search.MAX_PLY;
+
+    /**
+     * Most nodes to visit
+     */
+    private long nodes = Long.MAX_VALUE;
+
+    /**
+     * Fixed time for this move in milliseconds, or -1 if not set
+     */
+    private long moveTime = -1;
+
+    /**
+     * Time left on each side's clock in milliseconds (-1 if not set), indexed by
+     * Position.WHITE / Position.BLACK
+     */
+    private final long[] time = { -1, -1 };
+
+    /**
+     * Increment per move of each side's clock in milliseconds
+     */
+    private final long[] increment = new long[2];
+
+    /**
+     * Moves left until the next time control, or 0 if the clock covers the rest
+     * of the game
+     */
+    private int movesToGo;
+
+    /**
+     * True to search until stopped, ignoring the other limits
+     */
+    private boolean infinite;
+
+    /**
+     * Sets the deepest iteration
+     * 
+     * @param depth Depth in half moves
+     * @return This SearchLimits
+     */
+    public SearchLimits setDepth(int depth) {
+        this.depth = depth;
+        return this;
+    }
+
+    /**
+     * Sets the most nodes to visit
+     * 
+     * @param nodes Node budget
+     * @return This SearchLimits
+     */
+    public SearchLimits setNodes(long nodes) {
+        this.nodes = nodes;
+        return this;
+    }
+
+    /**
+     * Sets a fixed time for this move
+     * 
+     * @param millis Time in milliseconds
+     * @return This SearchLimits
+     */
+    public SearchLimits setMoveTime(long millis) {
+        this.moveTime = millis;
+        return this;
+    }
+
+    /**
+     * Sets the time left on a side's clock and its increment
+     * 
+     * @param side      Position.WHITE or Position.BLACK
+     * @param millis    Time left in milliseconds
+     * @param increment Increment per move in milliseconds
+     * @return This SearchLimits
+     */
+    public SearchLimits setTime(int side, long millis, long increment) {
+        this.time[side] = millis;
+        this.increment[side] = increment;
+        return this;
+    }
+
+    /**
+     * Sets the number of moves until the next time control
+     * 
+     * @param movesToGo Moves left, or 0 if the clock covers the rest of the game
+     * @return This SearchLimits
+     */
+    public SearchLimits setMovesToGo(int movesToGo) {
+        this.movesToGo = movesToGo;
+        return this;
+    }
+
+    /**
+     * Makes the search run until stopped
+     * 
+     * @param infinite True to ignore the other limits
+     * @return This SearchLimits
+     */
+    public SearchLimits setInfinite(boolean infinite) {
+        this.infinite = infinite;
+        return this;
+    }
+
+    /**
+     * Returns the deepest iteration
+     * 
+     * @return Depth in half moves
+     */
+    public int getDepth() {
+        return infinite ? Search.MAX_PLY : depth;
+    }
+
+    /**
+     * Returns the node budget
+     * 
+     * @return Most nodes to visit
+     */
+    public long getNodes() {
+        return infinite ? Long.MAX_VALUE : nodes;
+    }
+
+    /**
+     * Returns the fixed time for this move
+     * 
+     * @return Time in milliseconds, or -1 if not set
+     */
+    public long getMoveTime() {
+        return moveTime;
+    }
+
+    /**
+     * Returns the time left on a side's clock
+     * 
+     * @param side Position.WHITE or Position.BLACK
+     * @return Time in milliseconds, or -1 if not set
+     */
+    public long getTime(int side) {
+        return time[side];
+    }
+
+    /**
+     * Returns the increment of a side's clock
+     * 
+     * @param side Position.WHITE or Position.BLACK
+     * @return Increment per move in milliseconds
+     */
+    public long getIncrement(int side) {
+        return increment[side];
+    }
+
+    /**
+     * Returns the number of moves until the next time control
+     * 
+     * @return Moves left, or 0 if the clock covers the rest of the game
+     */
+    public int getMovesToGo() {
+        return movesToGo;
+    }
+
+    /**
+     * Check if the search runs until stopped
+     * 
+     * @return True if the search ignores the other limits, False otherwise
+     */
+    public boolean isInfinite() {
+        return infinite;
+    }
+}
@@ -0,0 +1,140 @@
+package ChessEngine;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Switches for the selective parts of the search, all on by default. Turning
+ * one off leaves plain alpha-beta for that part, so each can be measured on
+ * its own. Setters return this so switches can be chained, e.g.
+ * new SearchOptions().setNullMovePruning(false).setLateMoveReductions(false).
+ */
+public class SearchOptions {
+
+    /**
+     * True to try passing the turn before searching the moves
+     */
+    private boolean nullMovePruning = true;
+
+    /**
+     * True to search late quiet moves with less depth
+     */
+    private boolean lateMoveReductions = true;
+
+    /**
+     * True to search moves after the first with a zero window
+     */
+    private boolean principalVariationSearch = true;
+
+    /**
+     * True to start each iteration with a narrow window around the last score
+     */
+    private boolean aspirationWindows = true;
+
+    /**
+     * True to search one half move deeper when in check
+     */
+    private boolean checkExtensions = true;
+
+    /**
+     * Turns null move pruning on or off
+     * 
+     * @param on True to prune with null moves
+     * @return This SearchOptions
+     */
+    public SearchOptions setNullMovePruning(boolean on) {
+        this.nullMovePruning = on;
+        return this;
+    }
+
+    /**
+     * Turns late move reductions on or off
+     * 
+     * @param on True to reduce late quiet moves
+     * @return This SearchOptions
+     */
+    public SearchOptions setLateMoveReductions(boolean on) {
+        this.lateMoveReductions = on;
+        return this;
+    }
+
+    /**
+     * Turns principal variation search on or off
+     * 
+     * @param on True to search moves after the first with a zero window
+     * @return This SearchOptions
+     */
+    public SearchOptions setPrincipalVariationSearch(boolean on) {
+        this.principalVariationSearch = on;
+        return this;
+    }
+
+    /**
+     * Turns aspiration windows at the root on or off
+     * 
+     * @param on True to start iterations with a narrow window
+     * @return This SearchOptions
+     */
+    public SearchOptions setAspirationWindows(boolean on) {
+        this.aspirationWindows = on;
+        return this;
+    }
+
+    /**
+     * Turns check extensions on or off
+     * 
+     * @param on True to extend the search in check
+     * @return This SearchOptions
+     */
+    public SearchOptions setCheckExtensions(boolean on) {
+        this.checkExtensions = on;
+        return this;
+    }
+
+    /**
+     * Check if null move pruning is on
+     * 
+     * @return True if the search prunes with null moves, False otherwise
+     */
+    public boolean isNullMovePruning() {
+        return nullMovePruning;
+    }
+
+    /**
+     * Check if late move reductions are on
+     * 
+     * @return True if the search reduces late quiet moves, False otherwise
+     */
+    public boolean isLateMoveReductions() {
+        return lateMoveReductions;
+    }
+
+    /**
+     * Check if principal variation search is on
+     * 
+     * @return True if moves after the first get a zero window, False otherwise
+     */
+    public boolean isPrincipalVariationSearch() {
+        return principalVariationSearch;
+    }
+
+    /**
+     * Check if aspiration windows are on
+     * 
+     * @return True if iterations start with a narrow window, False otherwise
+     */
+    public boolean isAspirationWindows() {
+        return aspirationWindows;
+    }
+
+    /**
+     * Check if check extensions are on
+     * 
+     * @return True if the search extends in check, False otherwise
+     */
+    public boolean isCheckExtensions() {
+        return checkExtensions;
+    }
+}
@@ -0,0 +1,118 @@
+package ChessEngine;
+
+import ChessBoard.Move;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Result of the deepest completed iteration of a search: the best move, its
+ * score and the principal variation that leads to it
+ */
+public class SearchResult {
+
+    /**
+     * Best move found (packed, see Move), or Move.NONE if there is no legal move
+     */
+    private final int bestMove;
+
+    /**
+     * Score of the best move in centipawns from the side to move's point of view
+     */
+    private final int score;
+
+    /**
+     * Depth of the iteration that produced this result
+     */
+    private final int depth;
+
+    /**
+     * Principal variation, starting with bestMove
+     */
+    private final int[] pv;
+
+    /**
+     * Nodes visited by the whole search
+     */
+    private final long nodes;
+
+    /**
+     * 5-Arg constructor for SearchResult
+     * 
+     * @param bestMove Best move found, or Move.NONE
+     * @param score    Score of the best move
+     * @param depth    Depth of the completed iteration
+     * @param pv       Principal variation
+     * @param nodes    Nodes visited
+     */
+    public SearchResult(int bestMove, int score, int depth, int[] pv, long nodes) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.pv = pv;
+        this.nodes = nodes;
+    }
+
+    /**
+     * Returns the best move
+     * 
+     * @return Packed best move, or Move.NONE if there is no legal move
+     */
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * Returns the score of the best move
+     * 
+     * @return Score in centipawns, or a mate score (see Search.isMateScore)
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Returns the depth of the iteration that produced this result
+     * 
+     * @return Search depth in half moves
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns the principal variation
+     * 
+     * @return Packed moves of the expected line of play
+     */
+    public int[] getPv() {
+        return pv;
+    }
+
+    /**
+     * Returns the number of nodes visited
+     * 
+     * @return Nodes visited by the whole search
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the principal variation in coordinate notation
+     * 
+     * @return Moves separated by spaces, e.g. "e2e4 e7e5"
+     */
+    public String pvString() {
+        StringBuilder s = new StringBuilder();
+        for (int move : pv) {
+            if (s.length() > 0) {
+                s.append(' ');
+            }
+            s.append(Move.toString(move));
+        }
+        return s.toString();
+    }
+}
@@ -0,0 +1,121 @@
+package ChessEngine;
+
+import ChessBoard.*;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Static exchange evaluation: plays out every capture on the target square of a
+ * move, each side always recapturing with its least valuable attacker, and
+ * returns the material the move wins if both sides stop capturing as soon as
+ * it no longer pays. Attackers hidden behind a capturing slider (x-rays) join
+ * the exchange when the slider leaves the line. Nothing is moved on the board.
+ */
+public class See {
+
+    /**
+     * Most captures an exchange on one square can have, and the size of the gain
+     * buffer passed to see
+     */
+    public static final int MAX_EXCHANGE = 32;
+
+    /**
+     * Static exchange evaluations are only computed through the static methods
+     */
+    private See() {
+    }
+
+    /**
+     * Returns the material a capture wins after all recaptures on its square.
+     * Promotions and en passant captures are counted by the piece they take
+     * only. The caller owns the scratch buffer, so the hot capture loop of the
+     * search allocates nothing.
+     * 
+     * @param pos  Position the move was generated for
+     * @param move Packed capture
+     * @param gain Buffer of at least MAX_EXCHANGE entries, used as scratch space
+     * @return Material balance in centipawns for the side making the move;
+     *         negative if the capture loses material
+     */
+    public static int see(Position pos, int move, int[] gain) {
+        int to = Move.to(move);
+        int from = Move.from(move);
+        int captured = Move.captured(move);
+        gain[0] = captured == Position.EMPTY ? 0 : Evaluation.PIECE_VALUES[Position.pieceType(captured)];
+        int attackerType = Position.pieceType(Move.piece(move));
+        int side = Position.sideOf(Move.piece(move));
+
+        long diagonal = pos.pieces(Position.WHITE, Position.BISHOP) | pos.pieces(Position.BLACK, Position.BISHOP)
+                | pos.pieces(Position.WHITE, Position.QUEEN) | pos.pieces(Position.BLACK, Position.QUEEN);
+        long straight = pos.pieces(Position.WHITE, Position.ROOK) | pos.pieces(Position.BLACK, Position.ROOK)
+                | pos.pieces(Position.WHITE, Position.QUEEN) | pos.pieces(Position.BLACK, Position.QUEEN);
+
+        long occ = pos.occupied();
+        if (Move.flag(move) == Move.EN_PASSANT) {
+            occ ^= Position.bit(side == Position.WHITE ? to + 8 : to - 8);
+        }
+        long attackers = pos.attackersTo(to, occ);
+        long fromBit = Position.bit(from);
+        int d = 0;
+        while (fromBit != 0 && d < MAX_EXCHANGE - 1) {
+            d++;
+            // speculative score if the piece now on the square is taken next
+            gain[d] = Evaluation.PIECE_VALUES[attackerType] - gain[d - 1];
+            if (Math.max(-gain[d - 1], gain[d]) < 0) {
+                // neither side can improve by continuing
+                break;
+            }
+            occ ^= fromBit;
+            // a slider that left may uncover another one behind it
+            attackers |= (Attacks.bishop(to, occ) & diagonal) | (Attacks.rook(to, occ) & straight);
+            attackers &= occ;
+            side = 1 - side;
+
+            fromBit = 0;
+            long own = attackers & pos.occupancy(side);
+            for (int type = Position.PAWN; type <= Position.KING && own != 0; type++) {
+                long b = own & pos.pieces(side, type);
+                if (b != 0) {
+                    if (type == Position.KING && (attackers & pos.occupancy(1 - side)) != 0) {
+                        // the king may not capture onto a defended square
+                        break;
+                    }
+                    fromBit = b & -b;
+                    attackerType = type;
+                    break;
+                }
+            }
+        }
+        while (--d > 0) {
+            gain[d - 1] = -Math.max(-gain[d - 1], gain[d]);
+        }
+        return gain[0];
+    }
+
+    /**
+     * Check if a capture does not lose material. A capture of a piece worth at
+     * least the capturing piece is decided without playing out the exchange.
+     * 
+     * @param pos  Position the move was generated for
+     * @param move Packed capture or promotion
+     * @param gain Buffer of at least MAX_EXCHANGE entries, used as scratch space
+     * @return True if the move wins or keeps material, False otherwise
+     */
+    public static boolean isGoodCapture(Position pos, int move, int[] gain) {
+        int captured = Move.captured(move);
+        if (captured == Position.EMPTY) {
+            // quiet promotions are left to the search
+            return true;
+        }
+        int attacker = Position.pieceType(Move.piece(move));
+        if (attacker == Position.KING
+                || Evaluation.PIECE_VALUES[Position.pieceType(captured)] >= Evaluation.PIECE_VALUES[attacker]) {
+            // a legal king capture is never recaptured
+            return true;
+        }
+        return see(pos, move, gain) >= 0;
+    }
+}
@@ -0,0 +1,109 @@
+package ChessEngine;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Turns the time limits of a search into two deadlines. After the soft deadline
+ * no new iteration is started, since it would most likely not finish. At the
+ * hard deadline the running iteration is abandoned. With a clock, the move gets
+ * an even share of the remaining time plus most of the increment, and the hard
+ * deadline always leaves a safety margin on the clock.
+ */
+public class TimeManager {
+
+    /**
+     * Time kept back on every move for communication and scheduling delays
+     */
+    public static final long MOVE_OVERHEAD_MS = 30;
+
+    /**
+     * Moves the remaining clock time is spread over when the time control does
+     * not say
+     */
+    private static final int DEFAULT_MOVES_TO_GO = 30;
+
+    /**
+     * Multiple of the planned time the hard deadline allows, for iterations that
+     * turn out slower than expected
+     */
+    private static final int HARD_LIMIT_FACTOR = 4;
+
+    /**
+     * System.nanoTime() when the search started
+     */
+    private final long start;
+
+    /**
+     * System.nanoTime() after which no new iteration starts
+     */
+    private final long softDeadline;
+
+    /**
+     * System.nanoTime() at which the search is stopped
+     */
+    private final long hardDeadline;
+
+    /**
+     * True if the search has deadlines at all
+     */
+    private final boolean timed;
+
+    /**
+     * 2-Arg constructor for TimeManager, started now
+     * 
+     * @param limits Limits of the search
+     * @param side   Side to move (Position.WHITE or Position.BLACK)
+     */
+    public TimeManager(SearchLimits limits, int side) {
+        start = System.nanoTime();
+        long soft = -1;
+        long hard = -1;
+        if (limits.isInfinite()) {
+            // only stop() ends the search
+        } else if (limits.getMoveTime() >= 0) {
+            soft = Math.max(1, limits.getMoveTime() - MOVE_OVERHEAD_MS);
+            hard = soft;
+        } else if (limits.getTime(side) >= 0) {
+            long left = limits.getTime(side);
+            long inc = limits.getIncrement(side);
+            int movesToGo = limits.getMovesToGo() > 0 ? limits.getMovesToGo() : DEFAULT_MOVES_TO_GO;
+            long safe = Math.max(1, left - MOVE_OVERHEAD_MS);
+            soft = Math.min(safe, left / movesToGo + inc * 3 / 4);
+            hard = Math.min(safe, soft * HARD_LIMIT_FACTOR);
+        }
+        timed = soft >= 0;
+        softDeadline = start + soft * 1000000;
+        hardDeadline = start + hard * 1000000;
+    }
+
+    /**
+     * Check if the search should not start another iteration
+     * 
+     * @return True if the soft deadline passed, False otherwise
+     */
+    public boolean stopIterating() {
+        // nanoTime may wrap around, so compare differences
+        return timed && System.nanoTime() - softDeadline >= 0;
+    }
+
+    /**
+     * Check if the search must stop now
+     * 
+     * @return True if the hard deadline passed, False otherwise
+     */
+    public boolean outOfTime() {
+        return timed && System.nanoTime() - hardDeadline >= 0;
+    }
+
+    /**
+     * Returns the time since the search started
+     * 
+     * @return Elapsed time in milliseconds
+     */
+    public long elapsedMillis() {
+        return (System.nanoTime() - start) / 1000000;
+    }
+}
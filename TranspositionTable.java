@@ -0,0 +1,250 @@
+package ChessEngine;
+
+import ChessBoard.Move;
+import java.util.Arrays;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Fixed-size transposition table shared by any number of search threads without
+ * locks. Each slot is two longs in one flat array: the position key XOR'ed with
+ * the data, and the data itself. A reader recomputes key ^ data and only trusts
+ * the slot if it gives back its own key, so a slot torn by two threads writing at
+ * once reads as a miss instead of as wrong data. No objects are created per
+ * entry.
+ * 
+ * Data layout (low bit first): bits 0-24 best move (see Move), bits 25-40 score,
+ * bits 41-48 depth, bits 49-50 bound type, bits 51-58 search generation.
+ */
+public class TranspositionTable {
+
+    /**
+     * Bound type of an empty slot; never stored
+     */
+    public static final int NONE = 0;
+
+    /**
+     * Bound type of a score that is at most the stored score (no move raised
+     * alpha)
+     */
+    public static final int UPPER = 1;
+
+    /**
+     * Bound type of a score that is at least the stored score (beta cutoff)
+     */
+    public static final int LOWER = 2;
+
+    /**
+     * Bound type of an exact score
+     */
+    public static final int EXACT = 3;
+
+    /**
+     * Longs used by one slot: the verified key and the data
+     */
+    private static final int SLOT_LONGS = 2;
+
+    /**
+     * Key XOR data and data of every slot, interleaved
+     */
+    private final long[] table;
+
+    /**
+     * Number of slots minus one; the slot count is a power of two
+     */
+    private final int mask;
+
+    /**
+     * Generation of the current search, so entries of earlier searches are
+     * replaced first
+     */
+    private int generation;
+
+    /**
+     * 1-Arg constructor for TranspositionTable
+     * 
+     * @param megabytes Size of the table in MB, rounded down to a power of two
+     *                  number of slots
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Transposition table size must be at least 1 MB: " + megabytes);
+        }
+        long slots = (long) megabytes * 1024 * 1024 / (SLOT_LONGS * Long.BYTES);
+        // largest power of two that fits, capped so the array index stays an int
+        slots = Long.highestOneBit(Math.min(slots, 1L << 29));
+        table = new long[(int) slots * SLOT_LONGS];
+        mask = (int) slots - 1;
+    }
+
+    /**
+     * Empties every slot
+     */
+    public void clear() {
+        Arrays.fill(table, 0);
+        generation = 0;
+    }
+
+    /**
+     * Starts a new search, so the entries of earlier searches age out
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /**
+     * Looks up a position
+     * 
+     * @param key Zobrist key of the position
+     * @return Data of the matching entry, or 0 if there is none
+     */
+    public long probe(long key) {
+        int i = index(key);
+        long data = table[i + 1];
+        if ((table[i] ^ data) == key) {
+            return data;
+        }
+        return 0;
+    }
+
+    /**
+     * Stores the result of searching a position. An entry of the same position or
+     * of an earlier search is always replaced; otherwise only a search at least
+     * as deep replaces it.
+     * 
+     * @param key   Zobrist key of the position
+     * @param move  Best move found, or Move.NONE
+     * @param score Score of the position at ply
+     * @param depth Remaining depth the position was searched to
+     * @param bound UPPER, LOWER or EXACT
+     * @param ply   Distance from the root, used to store mate scores relative to
+     *              the position
+     */
+    public void store(long key, int move, int score, int depth, int bound, int ply) {
+        int i = index(key);
+        long old = table[i + 1];
+        boolean samePosition = (table[i] ^ old) == key;
+        if (!samePosition && bound(old) != NONE && generation(old) == generation && depth(old) > depth) {
+            return;
+        }
+        if (move == Move.NONE && samePosition) {
+            // keep the best move of an earlier search of this position
+            move = move(old);
+        }
+        long data = (move & 0x1FFFFFFL)
+                | ((long) (toStored(score, ply) & 0xFFFF) << 25)
+                | ((long) (Math.max(depth, 0) & 0xFF) << 41)
+                | ((long) bound << 49)
+                | ((long) generation << 51);
+        table[i] = key ^ data;
+        table[i + 1] = data;
+    }
+
+    /**
+     * Returns the best move of an entry
+     * 
+     * @param data Entry data returned by probe
+     * @return Packed move, or Move.NONE
+     */
+    public static int move(long data) {
+        return (int) (data & 0x1FFFFFF);
+    }
+
+    /**
+     * Returns the score of an entry, with mate scores made relative to the root
+     * again
+     * 
+     * @param data Entry data returned by probe
+     * @param ply  Distance from the root of the probing position
+     * @return Score from the side to move's point of view
+     */
+    public static int score(long data, int ply) {
+        int score = (short) (data >>> 25);
+        if (score >= Search.MATE - Search.MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -Search.MATE + Search.MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    /**
+     * Returns the depth an entry was searched to
+     * 
+     * @param data Entry data returned by probe
+     * @return Remaining depth in half moves
+     */
+    public static int depth(long data) {
+        return (int) (data >>> 41) & 0xFF;
+    }
+
+    /**
+     * Returns the bound type of an entry
+     * 
+     * @param data Entry data returned by probe
+     * @return UPPER, LOWER, EXACT, or NONE for a miss
+     */
+    public static int bound(long data) {
+        return (int) (data >>> 49) & 0x3;
+    }
+
+    /**
+     * Returns the per mille of slots used by the current search, sampled from
+     * the first thousand slots
+     * 
+     * @return Fill rate from 0 to 1000
+     */
+    public int hashfull() {
+        int used = 0;
+        int sample = Math.min(1000, mask + 1);
+        for (int s = 0; s < sample; s++) {
+            long data = table[s * SLOT_LONGS + 1];
+            if (bound(data) != NONE && generation(data) == generation) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    /**
+     * Returns the search generation of an entry
+     * 
+     * @param data Entry data
+     * @return Generation the entry was stored in
+     */
+    private static int generation(long data) {
+        return (int) (data >>> 51) & 0xFF;
+    }
+
+    /**
+     * Converts a score at ply into a score relative to the stored position, so a
+     * mate found through a transposition keeps the right distance
+     * 
+     * @param score Score relative to the root
+     * @param ply   Distance from the root
+     * @return Score relative to the position
+     */
+    private static int toStored(int score, int ply) {
+        if (score >= Search.MATE - Search.MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -Search.MATE + Search.MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    /**
+     * Returns the array index of the slot a key maps to
+     * 
+     * @param key Zobrist key
+     * @return Index of the slot's first long
+     */
+    private int index(long key) {
+        return ((int) key & mask) * SLOT_LONGS;
+    }
+}
@@ -0,0 +1,483 @@
+package ChessController;
+
+import ChessBoard.*;
+import ChessEngine.*;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Universal Chess Interface (UCI) front end, so the engine can be driven by
+ * chess GUIs and tournament managers instead of the human vs human game loop.
+ * Commands are read on the calling thread and every search runs on a thread of
+ * its own, so stop and isready are answered while a search is running. Nothing
+ * is printed besides the protocol's own replies.
+ */
+public class Uci {
+
+    /**
+     * Engine name reported to the GUI
+     */
+    public static final String NAME = "Chess";
+
+    /**
+     * Largest transposition table in MB the Hash option accepts
+     */
+    private static final int MAX_HASH_MB = 4096;
+
+    /**
+     * Most search threads the Threads option accepts
+     */
+    private static final int MAX_THREADS = 256;
+
+    /**
+     * Source of the GUI's commands
+     */
+    private final BufferedReader in;
+
+    /**
+     * Destination of the replies
+     */
+    private final PrintStream out;
+
+    /**
+     * Position set by the last position command; a new object each time, so a
+     * running search never sees it change
+     */
+    private Position pos = Position.startPosition();
+
+    /**
+     * Transposition table kept between searches of a game
+     */
+    private TranspositionTable tt = new TranspositionTable(Search.DEFAULT_HASH_MB);
+
+    /**
+     * Number of search threads
+     */
+    private int threads = 1;
+
+    /**
+     * Selective search features, switched by setoption
+     */
+    private final SearchOptions options = new SearchOptions();
+
+    /**
+     * True if moves are taken from the opening book, False otherwise
+     */
+    private boolean ownBook;
+
+    /**
+     * Polyglot book file set by the BookFile option, or empty
+     */
+    private String bookFile = "";
+
+    /**
+     * Opening book opened from bookFile, or null
+     */
+    private PolyglotBook book;
+
+    /**
+     * Source of the book move choice
+     */
+    private final Random random = new Random();
+
+    /**
+     * Search started by the last go command, or null
+     */
+    private ParallelSearch search;
+
+    /**
+     * Thread running the last search, or null
+     */
+    private Thread searchThread;
+
+    /**
+     * Released by stop, so an infinite search only reports its move when told to
+     */
+    private CountDownLatch stopSignal;
+
+    /**
+     * 2-Arg constructor for Uci
+     * 
+     * @param in  Source of the GUI's commands
+     * @param out Destination of the replies
+     */
+    public Uci(InputStream in, PrintStream out) {
+        this.in = new BufferedReader(new InputStreamReader(in));
+        this.out = out;
+    }
+
+    /**
+     * Reads and answers commands until quit or the end of input
+     * 
+     * @throws IOException Used for command reading
+     */
+    public void run() throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (!handle(line.trim())) {
+                break;
+            }
+        }
+        stopSearch();
+    }
+
+    /**
+     * Answers one command. Unknown commands are ignored, as the protocol asks.
+     * 
+     * @param line Command line from the GUI
+     * @return False if the command was quit, True otherwise
+     */
+    private boolean handle(String line) {
+        String[] tokens = line.split("\\s+");
+        switch (tokens[0]) {
+            case "uci":
+                send("id name " + NAME);
+                send("id author Michael Mogilevsky, Simran Sareen");
+                send("option name Hash type spin default " + Search.DEFAULT_HASH_MB + " min 1 max " + MAX_HASH_MB);
+                send("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+                send("option name Clear Hash type button");
+                send("option name NullMovePruning type check default true");
+                send("option name LateMoveReductions type check default true");
+                send("option name PrincipalVariationSearch type check default true");
+                send("option name AspirationWindows type check default true");
+                send("option name CheckExtensions type check default true");
+                send("option name OwnBook type check default false");
+                send("option name BookFile type string default <empty>");
+                send("uciok");
+                break;
+            case "isready":
+                send("readyok");
+                break;
+            case "setoption":
+                stopSearch();
+                setOption(line);
+                break;
+            case "ucinewgame":
+                stopSearch();
+                tt.clear();
+                break;
+            case "position":
+                position(tokens);
+                break;
+            case "go":
+                stopSearch();
+                go(tokens);
+                break;
+            case "stop":
+                stopSearch();
+                break;
+            case "quit":
+                return false;
+            default:
+                break;
+        }
+        return true;
+    }
+
+    /**
+     * Handles "setoption name &lt;id&gt; [value &lt;x&gt;]"; option names may
+     * contain spaces
+     * 
+     * @param line Command line from the GUI
+     */
+    private void setOption(String line) {
+        int nameAt = line.indexOf(" name ");
+        if (nameAt < 0) {
+            return;
+        }
+        int valueAt = line.indexOf(" value ");
+        String name = (valueAt < 0 ? line.substring(nameAt + 6) : line.substring(nameAt + 6, valueAt)).trim();
+        String value = valueAt < 0 ? "" : line.substring(valueAt + 7).trim();
+        try {
+            switch (name.toLowerCase()) {
+                case "hash":
+                    int mb = Math.max(1, Math.min(MAX_HASH_MB, Integer.parseInt(value)));
+                    tt = new TranspositionTable(mb);
+                    break;
+                case "threads":
+                    threads = Math.max(1, Math.min(MAX_THREADS, Integer.parseInt(value)));
+                    break;
+                case "clear hash":
+                    tt.clear();
+                    break;
+                case "nullmovepruning":
+                    options.setNullMovePruning(Boolean.parseBoolean(value));
+                    break;
+                case "latemovereductions":
+                    options.setLateMoveReductions(Boolean.parseBoolean(value));
+                    break;
+                case "principalvariationsearch":
+                    options.setPrincipalVariationSearch(Boolean.parseBoolean(value));
+                    break;
+                case "aspirationwindows":
+                    options.setAspirationWindows(Boolean.parseBoolean(value));
+                    break;
+                case "checkextensions":
+                    options.setCheckExtensions(Boolean.parseBoolean(value));
+                    break;
+                case "ownbook":
+                    ownBook = Boolean.parseBoolean(value);
+                    break;
+                case "bookfile":
+                    bookFile = value.equals("<empty>") ? "" : value;
+                    openBook();
+                    break;
+                default:
+                    send("info string unknown option " + name);
+                    break;
+            }
+        } catch (NumberFormatException e) {
+            send("info string bad value for option " + name + ": " + value);
+        }
+    }
+
+    /**
+     * Opens the opening book set by the BookFile option, closing the previous one
+     */
+    private void openBook() {
+        if (book != null) {
+            try {
+                book.close();
+            } catch (IOException e) {
+                send("info string " + e.getMessage());
+            }
+            book = null;
+        }
+        if (bookFile.isEmpty()) {
+            return;
+        }
+        try {
+            book = PolyglotBook.open(Paths.get(bookFile));
+        } catch (IOException e) {
+            send("info string cannot open book " + bookFile + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Handles "position [startpos | fen &lt;fen&gt;] [moves &lt;move&gt; ...]".
+     * The moves are played on the position, so repetitions in them are seen by
+     * the search.
+     * 
+     * @param tokens Command split at whitespace
+     */
+    private void position(String[] tokens) {
+        int movesAt = tokens.length;
+        for (int i = 1; i < tokens.length; i++) {
+            if (tokens[i].equals("moves")) {
+                movesAt = i;
+                break;
+            }
+        }
+        Position next;
+        try {
+            if (tokens.length > 1 && tokens[1].equals("fen")) {
+                next = Position.fromFen(String.join(" ", Arrays.copyOfRange(tokens, 2, movesAt)));
+            } else {
+                next = Position.startPosition();
+            }
+        } catch (IllegalArgumentException e) {
+            send("info string " + e.getMessage());
+            return;
+        }
+        for (int i = movesAt + 1; i < tokens.length; i++) {
+            int move = parseMove(next, tokens[i]);
+            if (move == Move.NONE) {
+                send("info string illegal move " + tokens[i]);
+                break;
+            }
+            next.makeMove(move);
+        }
+        pos = next;
+    }
+
+    /**
+     * Handles "go" with any of wtime, btime, winc, binc, movestogo, depth,
+     * nodes, movetime and infinite, and starts the search on its own thread.
+     * With OwnBook on, a position found in the opening book is answered with a
+     * book move at once and not searched.
+     * 
+     * @param tokens Command split at whitespace
+     */
+    private void go(String[] tokens) {
+        SearchLimits limits = new SearchLimits();
+        long[] time = { -1, -1 };
+        long[] increment = new long[2];
+        try {
+            for (int i = 1; i < tokens.length; i++) {
+                switch (tokens[i]) {
+                    case "wtime":
+                        time[Position.WHITE] = Long.parseLong(tokens[++i]);
+                        break;
+                    case "btime":
+                        time[Position.BLACK] = Long.parseLong(tokens[++i]);
+                        break;
+                    case "winc":
+                        increment[Position.WHITE] = Long.parseLong(tokens[++i]);
+                        break;
+                    case "binc":
+                        increment[Position.BLACK] = Long.parseLong(tokens[++i]);
+                        break;
+                    case "movestogo":
+                        limits.setMovesToGo(Integer.parseInt(tokens[++i]));
+                        break;
+                    case "depth":
+                        limits.setDepth(Integer.parseInt(tokens[++i]));
+                        break;
+                    case "nodes":
+                        limits.setNodes(Long.parseLong(tokens[++i]));
+                        break;
+                    case "movetime":
+                        limits.setMoveTime(Long.parseLong(tokens[++i]));
+                        break;
+                    case "infinite":
+                        limits.setInfinite(true);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            send("info string bad go command");
+            return;
+        }
+        for (int side = Position.WHITE; side <= Position.BLACK; side++) {
+            if (time[side] >= 0) {
+                limits.setTime(side, Math.max(0, time[side]), increment[side]);
+            }
+        }
+
+        // a book move is played at once, except in analysis where the GUI wants a search
+        if (ownBook && book != null && !limits.isInfinite()) {
+            int move = book.probe(pos, random);
+            if (move != Move.NONE) {
+                send("info string book move");
+                send("bestmove " + Move.toString(move));
+                return;
+            }
+        }
+
+        // a new ParallelSearch per search, so a late stop cannot reach the next one
+        ParallelSearch s = new ParallelSearch(pos, tt, threads);
+        s.setOptions(options);
+        CountDownLatch signal = new CountDownLatch(1);
+        search = s;
+        stopSignal = signal;
+        searchThread = new Thread(() -> {
+            long start = System.nanoTime();
+            // progress is reported after every iteration, so the GUI sees long searches deepen
+            s.setIterationListener(r -> send(info(r, start)));
+            SearchResult r = s.search(limits);
+            if (limits.isInfinite()) {
+                // the protocol wants the best move of an infinite search only after stop
+                try {
+                    signal.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            int best = r.getBestMove();
+            send("bestmove " + (best == Move.NONE ? "0000" : Move.toString(best)));
+        }, "search");
+        searchThread.start();
+    }
+
+    /**
+     * Stops the running search, if any, and waits until it reported its move
+     */
+    private void stopSearch() {
+        if (searchThread == null) {
+            return;
+        }
+        stopSignal.countDown();
+        search.stop();
+        try {
+            searchThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        searchThread = null;
+        search = null;
+        stopSignal = null;
+    }
+
+    /**
+     * Finds the legal move of a position written in UCI notation, e.g. "e2e4" or
+     * "e7e8q"
+     * 
+     * @param pos  Position the move is played in
+     * @param text Move in UCI notation
+     * @return Packed move, or Move.NONE if no legal move matches
+     */
+    private static int parseMove(Position pos, String text) {
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateLegal(pos, moves);
+        for (int i = 0; i < count; i++) {
+            if (Move.toString(moves[i]).equals(text)) {
+                return moves[i];
+            }
+        }
+        return Move.NONE;
+    }
+
+    /**
+     * Writes the info line of a completed iteration
+     * 
+     * @param r     Result of the iteration
+     * @param start System.nanoTime() when the search started
+     * @return "info depth ... score ... nodes ... nps ... time ... pv ..."
+     */
+    private static String info(SearchResult r, long start) {
+        long ms = (System.nanoTime() - start) / 1000000;
+        return "info depth " + r.getDepth() + " score " + score(r.getScore()) + " nodes " + r.getNodes() + " nps "
+                + r.getNodes() * 1000 / Math.max(1, ms) + " time " + ms + " pv " + r.pvString();
+    }
+
+    /**
+     * Writes a search score in UCI notation
+     * 
+     * @param score Search score from the side to move's point of view
+     * @return "cp &lt;centipawns&gt;" or "mate &lt;moves&gt;", negative if the
+     *         side to move gets mated
+     */
+    private static String score(int score) {
+        if (!Search.isMateScore(score)) {
+            return "cp " + score;
+        }
+        int plies = Search.MATE - Math.abs(score);
+        int moves = (plies + 1) / 2;
+        return "mate " + (score > 0 ? moves : -moves);
+    }
+
+    /**
+     * Sends one line to the GUI; the command and search threads both reply, so
+     * lines are written whole and flushed right away
+     * 
+     * @param line Reply without line terminator
+     */
+    private synchronized void send(String line) {
+        out.println(line);
+        out.flush();
+    }
+
+    /**
+     * Runs the UCI front end on standard input and output
+     * 
+     * @param args Main method arguments
+     * @throws IOException Used for command reading
+     */
+    public static void main(String[] args) throws IOException {
+        new Uci(System.in, System.out).run();
+    }
+}
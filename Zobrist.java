@@ -0,0 +1,92 @@
+package ChessBoard;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Random 64-bit keys used to hash a Position. The key of a position is the XOR
+ * of the keys of every piece on its square, the castling rights, the en
+ * passant file and the side to move, so a move updates it with a few XORs.
+ */
+public class Zobrist {
+
+    /**
+     * Keys per piece code and square
+     */
+    static final long[][] PIECE_SQUARE = new long[12][64];
+
+    /**
+     * Keys per combination of castling right bits
+     */
+    static final long[] CASTLING = new long[16];
+
+    /**
+     * Keys per file of the en passant square
+     */
+    static final long[] EN_PASSANT_FILE = new long[8];
+
+    /**
+     * Key toggled when Black is to move
+     */
+    static final long BLACK_TO_MOVE;
+
+    /**
+     * Seed of the key generator; fixed so keys are identical across runs and
+     * processes
+     */
+    private static long seed = 0x9E3779B97F4A7C15L;
+
+    static {
+        for (int p = 0; p < 12; p++) {
+            for (int sq = 0; sq < 64; sq++) {
+                PIECE_SQUARE[p][sq] = next();
+            }
+        }
+        for (int i = 0; i < 16; i++) {
+            CASTLING[i] = next();
+        }
+        for (int f = 0; f < 8; f++) {
+            EN_PASSANT_FILE[f] = next();
+        }
+        BLACK_TO_MOVE = next();
+    }
+
+    /**
+     * Returns the next pseudo random key (SplitMix64)
+     * 
+     * @return 64-bit random key
+     */
+    private static long next() {
+        long z = (seed += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Computes the key of a position from scratch. Only used to seed a new
+     * Position; moves update the key incrementally.
+     * 
+     * @param pos Position to hash
+     * @return 64-bit key of the position
+     */
+    public static long compute(Position pos) {
+        long key = 0;
+        for (int sq = 0; sq < 64; sq++) {
+            int piece = pos.pieceAt(sq);
+            if (piece != Position.EMPTY) {
+                key ^= PIECE_SQUARE[piece][sq];
+            }
+        }
+        key ^= CASTLING[pos.castlingRights()];
+        if (pos.enPassantSquare() >= 0) {
+            key ^= EN_PASSANT_FILE[Position.fileOf(pos.enPassantSquare())];
+        }
+        if (pos.sideToMove() == Position.BLACK) {
+            key ^= BLACK_TO_MOVE;
+        }
+        return key;
+    }
+}
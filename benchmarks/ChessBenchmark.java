@@ -0,0 +1,97 @@
+package ChessBenchmarks;
+
+import ChessBoard.*;
+import ChessController.*;
+import ChessPieces.*;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Benchmarks of the game controller: Chess.isCheckMate on positions in check
+ * and Chess.convertInput on user input
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ChessBenchmark {
+
+    /**
+     * Corpus position in check to examine
+     */
+    @Param({ "foolsMate", "backRankMate", "queenCheck", "knightCheck" })
+    public String check;
+
+    /**
+     * Board of the position in check
+     */
+    private ChessPiece[][] board;
+
+    /**
+     * King that is in check
+     */
+    private King checkedKing;
+
+    /**
+     * Game state owning the move buffer of the checkmate test
+     */
+    private final GameState state = new GameState();
+
+    /**
+     * Original System.out, restored after the trial
+     */
+    private PrintStream out;
+
+    /**
+     * Builds the board once per trial and silences the "Checkmate" output of
+     * isCheckMate
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        for (Object[] c : Corpus.CHECKS) {
+            if (c[0].equals(check)) {
+                board = Corpus.fromPlacement((String) c[1], (Integer) c[2]);
+                checkedKing = Corpus.king(board, (Integer) c[2]);
+            }
+        }
+        out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    /**
+     * Restores System.out
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(out);
+    }
+
+    /**
+     * Checks whether the checked king is mated
+     * 
+     * @return True if checkmate
+     */
+    @Benchmark
+    public boolean isCheckMate() {
+        return Chess.isCheckMate(checkedKing, board, state.moveBuffer);
+    }
+
+    /**
+     * Converts a typical move input to board coordinates
+     * 
+     * @return Converted move
+     */
+    @Benchmark
+    public int convertInput() {
+        return Chess.convertInput("e2 e4");
+    }
+}
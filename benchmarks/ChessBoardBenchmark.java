@@ -0,0 +1,52 @@
+package ChessBenchmarks;
+
+import ChessBoard.*;
+import ChessPieces.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Benchmarks of ChessBoard.cloneBoard on the corpus positions
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ChessBoardBenchmark {
+
+    /**
+     * Corpus position to clone
+     */
+    @Param({ "kiwipete", "italian", "rookEndgame", "pawnEndgame" })
+    public String position;
+
+    /**
+     * Board of the corpus position
+     */
+    private ChessPiece[][] board;
+
+    /**
+     * Builds the board once per trial
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        board = Corpus.board(position);
+    }
+
+    /**
+     * Deep copies the board
+     * 
+     * @return The copy, so the allocation is not eliminated
+     */
+    @Benchmark
+    public ChessPiece[][] cloneBoard() {
+        return ChessBoard.cloneBoard(board);
+    }
+}
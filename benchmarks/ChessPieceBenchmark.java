@@ -0,0 +1,145 @@
+package ChessBenchmarks;
+
+import ChessBoard.GameState;
+import ChessPieces.*;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Benchmarks of the per-piece rules: ChessPiece.existsCheck and movePiece(...)
+ * of every piece type
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ChessPieceBenchmark {
+
+    /**
+     * Quiet moves in the kiwipete position for each piece type, as
+     * {startR, startF, endR, endF}
+     */
+    private static final int[][] QUIET_MOVES = {
+            { 6, 0, 5, 0 }, // pawn a2 a3
+            { 5, 2, 7, 1 }, // knight c3 b1
+            { 6, 3, 7, 2 }, // bishop d2 c1
+            { 7, 0, 7, 1 }, // rook a1 b1
+            { 5, 5, 5, 6 }, // queen f3 g3
+            { 7, 4, 7, 3 }, // king e1 d1
+    };
+
+    /**
+     * Corpus position whose kings existsCheck examines
+     */
+    @State(Scope.Thread)
+    public static class CheckState {
+
+        /**
+         * Corpus position to examine
+         */
+        @Param({ "kiwipete", "italian", "rookEndgame", "pawnEndgame" })
+        public String position;
+
+        /**
+         * Board of the corpus position
+         */
+        private ChessPiece[][] board;
+
+        /**
+         * White king of the corpus position
+         */
+        private King whiteKing;
+
+        /**
+         * Black king of the corpus position
+         */
+        private King blackKing;
+
+        /**
+         * Builds the board once per trial
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            board = Corpus.board(position);
+            whiteKing = Corpus.king(board, ChessPiece.WHITE);
+            blackKing = Corpus.king(board, ChessPiece.BLACK);
+        }
+    }
+
+    /**
+     * Kiwipete board and the quiet move of one piece type for movePiece(...)
+     */
+    @State(Scope.Thread)
+    public static class MoveState {
+
+        /**
+         * Piece type to move
+         */
+        @Param({ "pawn", "knight", "bishop", "rook", "queen", "king" })
+        public String piece;
+
+        /**
+         * Kiwipete board that movePiece(...) moves on and restores
+         */
+        private ChessPiece[][] board;
+
+        /**
+         * Quiet move for the selected piece type
+         */
+        private int[] move;
+
+        /**
+         * Game state passed to movePiece(...)
+         */
+        private final GameState state = new GameState();
+
+        /**
+         * Builds the board once per trial
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            board = Corpus.board("kiwipete");
+            move = QUIET_MOVES[Arrays.asList("pawn", "knight", "bishop", "rook", "queen", "king").indexOf(piece)];
+        }
+    }
+
+    /**
+     * Checks both kings of the corpus position for a check
+     * 
+     * @param s Corpus position
+     * @return Number of kings in check, so the work is not eliminated
+     */
+    @Benchmark
+    public int existsCheck(CheckState s) {
+        int checks = 0;
+        if (ChessPiece.existsCheck(s.whiteKing.getRank(), s.whiteKing.getFile(), s.whiteKing, s.board))
+            checks++;
+        if (ChessPiece.existsCheck(s.blackKing.getRank(), s.blackKing.getFile(), s.blackKing, s.board))
+            checks++;
+        return checks;
+    }
+
+    /**
+     * Moves the selected piece type with movePiece(...) and puts it back with
+     * undoBoardWithMove(...), so every invocation starts from the same board
+     * 
+     * @param s Board and move of the piece type
+     * @return True if the move was performed
+     */
+    @Benchmark
+    public boolean movePiece(MoveState s) {
+        ChessPiece p = s.board[s.move[0]][s.move[1]];
+        boolean moved = p.movePiece(s.move[2], s.move[3], s.board, s.state);
+        if (moved) {
+            p.undoBoardWithMove(s.move[0], s.move[1], false, s.board);
+        }
+        return moved;
+    }
+}
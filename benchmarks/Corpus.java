@@ -0,0 +1,90 @@
+package ChessBenchmarks;
+
+import ChessBoard.*;
+import ChessPieces.*;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Fixed corpus of middlegame and endgame positions shared by the benchmarks,
+ * so numbers are comparable between runs
+ */
+public class Corpus {
+
+    /**
+     * Names of the corpus positions, usable as a JMH @Param value
+     */
+    public static final String[] NAMES = { "kiwipete", "italian", "rookEndgame", "pawnEndgame" };
+
+    /**
+     * Piece placement (the first FEN field) of each corpus position, in the same
+     * order as NAMES
+     */
+    private static final String[] PLACEMENTS = {
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R",
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8",
+            "8/5k2/3p4/1p1Pp2p/pP2Pp1P/P4P1K/8/8",
+    };
+
+    /**
+     * Positions where one king is in check, as placement and the checked team,
+     * which is also the team to move; the first two are checkmates, the others
+     * can be escaped
+     */
+    public static final Object[][] CHECKS = {
+            { "foolsMate", "rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR", ChessPiece.WHITE },
+            { "backRankMate", "3R2k1/5ppp/8/8/8/8/5PPP/6K1", ChessPiece.BLACK },
+            { "queenCheck", "rnbqkbnr/ppppp1pp/8/5p1Q/4P3/8/PPPP1PPP/RNB1KBNR", ChessPiece.BLACK },
+            { "knightCheck", "r1bqkb1r/pppp1ppp/2nN1n2/4p3/2B1P3/8/PPPP1PPP/RNBQK2R", ChessPiece.BLACK },
+    };
+
+    /**
+     * Builds the 2D array board of a corpus position
+     * 
+     * @param name One of NAMES
+     * @return 2D array of ChessPieces
+     */
+    public static ChessPiece[][] board(String name) {
+        for (int i = 0; i < NAMES.length; i++) {
+            if (NAMES[i].equals(name)) {
+                return fromPlacement(PLACEMENTS[i], ChessPiece.WHITE);
+            }
+        }
+        throw new IllegalArgumentException("Unknown corpus position: " + name);
+    }
+
+    /**
+     * Builds a 2D array board from the piece placement field of a FEN string.
+     * Kings and rooks on their start squares keep the right to castle.
+     * 
+     * @param placement  Piece placement, 8th rank first
+     * @param teamToMove ChessPiece.WHITE or ChessPiece.BLACK
+     * @return 2D array of ChessPieces
+     */
+    public static ChessPiece[][] fromPlacement(String placement, int teamToMove) {
+        String side = teamToMove == ChessPiece.WHITE ? " w" : " b";
+        return Fen.parse(placement + side + " KQkq - 0 1").getBoard();
+    }
+
+    /**
+     * Finds the king of a team on a board
+     * 
+     * @param board     2D array of ChessPieces
+     * @param teamColor ChessPiece.WHITE or ChessPiece.BLACK
+     * @return King of the team, or null if it is not on the board
+     */
+    public static King king(ChessPiece[][] board, int teamColor) {
+        for (int r = 0; r < ChessBoard.N; r++) {
+            for (int f = 0; f < ChessBoard.N; f++) {
+                if (board[r][f] instanceof King && board[r][f].getTeamColor() == teamColor) {
+                    return (King) board[r][f];
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,81 @@
+package ChessBenchmarks;
+
+import ChessBoard.*;
+import ChessEngine.*;
+import ChessPieces.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * @author Michael Mogilevsky (mm3201)
+ * @author Simran Sareen (ss3825)
+ */
+
+/**
+ * Benchmarks of a fixed depth search on the corpus positions with one selective
+ * search feature switched off at a time, to measure what each one is worth
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchBenchmark {
+
+    /**
+     * Corpus position to search
+     */
+    @Param({ "kiwipete", "italian", "rookEndgame", "pawnEndgame" })
+    public String position;
+
+    /**
+     * Feature switched off, or "none" to search with all of them
+     */
+    @Param({ "none", "nullMove", "lmr", "pvs", "aspiration", "checkExtension", "all" })
+    public String disabled;
+
+    /**
+     * Depth of the search in half moves
+     */
+    @Param({ "7" })
+    public int depth;
+
+    /**
+     * Position of the corpus entry, White to move
+     */
+    private Position pos;
+
+    /**
+     * Options with the feature switched off
+     */
+    private SearchOptions options;
+
+    /**
+     * Builds the position and options once per trial
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        pos = Position.fromBoard(Corpus.board(position), ChessPiece.WHITE);
+        boolean all = disabled.equals("all");
+        options = new SearchOptions()
+                .setNullMovePruning(!all && !disabled.equals("nullMove"))
+                .setLateMoveReductions(!all && !disabled.equals("lmr"))
+                .setPrincipalVariationSearch(!all && !disabled.equals("pvs"))
+                .setAspirationWindows(!all && !disabled.equals("aspiration"))
+                .setCheckExtensions(!all && !disabled.equals("checkExtension"));
+    }
+
+    /**
+     * Searches to the fixed depth with a fresh transposition table, so every
+     * invocation does the same work
+     * 
+     * @return The result, so the search is not eliminated
+     */
+    @Benchmark
+    public SearchResult search() {
+        Search search = new Search(pos, new TranspositionTable(Search.DEFAULT_HASH_MB));
+        search.setOptions(options);
+        return search.search(depth);
+    }
+}